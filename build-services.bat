@@ -1,5 +1,10 @@
 @echo off
 
+echo Building service-commons...
+cd service-commons
+call mvn install
+cd ..
+
 echo Building users service...
 cd users
 call mvn compile jib:build
@@ -1,5 +1,10 @@
 #!/bin/bash
 
+echo "Building service-commons..."
+cd service-commons
+mvn install
+cd ..
+
 echo "Building users service..."
 cd users
 mvn compile jib:build
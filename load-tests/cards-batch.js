@@ -0,0 +1,77 @@
+// Measures card creation throughput of single POST /api/v1/cards calls against
+// POST /api/v1/cards/batch with the same total number of cards.
+//
+//   k6 run -e OWNER_ID=1 -e TEAM_ID=1 load-tests/cards-batch.js
+//
+// OWNER_ID and TEAM_ID must exist. The summary prints cards per second for both scenarios;
+// the batch scenario starts once the single-call scenario has finished.
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8081';
+const OWNER_ID = Number(__ENV.OWNER_ID || 1);
+const TEAM_ID = Number(__ENV.TEAM_ID || 1);
+const CARDS = Number(__ENV.CARDS || 10000);
+const BATCH_SIZE = Number(__ENV.BATCH_SIZE || 500);
+const VUS = Number(__ENV.VUS || 10);
+const PARAMS = { headers: { 'Content-Type': 'application/json' }, timeout: '60s' };
+
+const singleCards = new Counter('cards_created_single');
+const batchCards = new Counter('cards_created_batch');
+
+export const options = {
+    scenarios: {
+        single: {
+            executor: 'shared-iterations',
+            exec: 'single',
+            vus: VUS,
+            iterations: CARDS,
+            maxDuration: '30m',
+        },
+        batch: {
+            executor: 'shared-iterations',
+            exec: 'batch',
+            vus: VUS,
+            iterations: Math.ceil(CARDS / BATCH_SIZE),
+            maxDuration: '30m',
+            startTime: __ENV.BATCH_START || '0s',
+        },
+    },
+};
+
+function card(i) {
+    return {
+        title: `Load test card ${i}`,
+        description: 'Created by load-tests/cards-batch.js',
+        posterUrl: 'https://example.com/poster.jpg',
+        ownerId: OWNER_ID,
+        teamId: TEAM_ID,
+    };
+}
+
+export function single() {
+    const response = http.post(`${BASE_URL}/api/v1/cards`, JSON.stringify(card(__ITER)), PARAMS);
+    if (check(response, { 'status is 201': (r) => r.status === 201 })) {
+        singleCards.add(1);
+    }
+}
+
+export function batch() {
+    const items = [];
+    for (let i = 0; i < BATCH_SIZE; i++) {
+        items.push(card(__ITER * BATCH_SIZE + i));
+    }
+    const response = http.post(`${BASE_URL}/api/v1/cards/batch`, JSON.stringify(items), PARAMS);
+    if (check(response, { 'status is 200': (r) => r.status === 200 })) {
+        batchCards.add(response.json('succeeded'));
+    }
+}
+
+export function handleSummary(data) {
+    const rate = (name) => (data.metrics[name] ? data.metrics[name].values.rate.toFixed(1) : '0');
+    return {
+        stdout: `single: ${rate('cards_created_single')} cards/s\nbatch (${BATCH_SIZE} per request): `
+            + `${rate('cards_created_batch')} cards/s\n`,
+    };
+}
@@ -0,0 +1,77 @@
+// Latency of the card listing (GET /api/v1/cards) at a fixed arrival rate, in count-free and
+// cursor mode, to compare the streaming response path with Jackson serialization of DTOs.
+//
+// Run the service once per mode and the script against each:
+//
+//   CARDS_LISTING_STREAMING=true java -jar teams/target/teams-*.jar
+//   k6 run -e MODE=streaming load-tests/cards-list.js
+//
+//   CARDS_LISTING_STREAMING=false java -jar teams/target/teams-*.jar
+//   k6 run -e MODE=jackson load-tests/cards-list.js
+//
+// SIZE (default 100) is the page size, PAGES (default 20) the number of distinct pages requested
+// in count-free mode; the table needs SIZE * PAGES cards. Compare p99 and the GC pause and
+// allocation metrics (jvm.gc.pause, jvm.gc.memory.allocated) of both runs.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8081';
+const RATE = Number(__ENV.RATE || 200);
+const SIZE = Number(__ENV.SIZE || 100);
+const PAGES = Number(__ENV.PAGES || 20);
+
+export const options = {
+    scenarios: {
+        pages: {
+            executor: 'constant-arrival-rate',
+            exec: 'pages',
+            rate: RATE,
+            timeUnit: '1s',
+            duration: __ENV.DURATION || '60s',
+            preAllocatedVUs: RATE,
+            maxVUs: RATE * 4,
+        },
+        cursor: {
+            executor: 'constant-arrival-rate',
+            exec: 'cursor',
+            rate: RATE,
+            timeUnit: '1s',
+            duration: __ENV.DURATION || '60s',
+            preAllocatedVUs: RATE,
+            maxVUs: RATE * 4,
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    tags: { mode: __ENV.MODE || 'unknown' },
+};
+
+export function pages() {
+    const page = Math.floor(Math.random() * PAGES);
+    const response = http.get(`${BASE_URL}/api/v1/cards?count=false&page=${page}&size=${SIZE}`,
+        { tags: { listing: 'pages' } });
+    check(response, { 'status is 200': (r) => r.status === 200 });
+}
+
+export function cursor() {
+    // The first window, then the one after it: both seek on the (updated_at, id) index
+    const first = http.get(`${BASE_URL}/api/v1/cards?cursor=&size=${SIZE}`, { tags: { listing: 'cursor' } });
+    check(first, { 'status is 200': (r) => r.status === 200 });
+    const nextCursor = first.status === 200 ? first.json('nextCursor') : null;
+    if (nextCursor) {
+        const next = http.get(`${BASE_URL}/api/v1/cards?cursor=${nextCursor}&size=${SIZE}`,
+            { tags: { listing: 'cursor' } });
+        check(next, { 'status is 200': (r) => r.status === 200 });
+    }
+}
+
+export function handleSummary(data) {
+    const mode = __ENV.MODE || 'unknown';
+    const duration = data.metrics.http_req_duration.values;
+    const line = `${mode}: ${data.metrics.http_reqs.values.rate.toFixed(1)} req/s, `
+        + `p50 ${duration['p(50)'].toFixed(1)} ms, p99 ${duration['p(99)'].toFixed(1)} ms, `
+        + `dropped ${data.metrics.dropped_iterations ? data.metrics.dropped_iterations.values.count : 0}\n`;
+    return { stdout: line };
+}
@@ -0,0 +1,71 @@
+// Invites and accepts a cohort of users on a card, one request per user against one
+// POST /api/v1/teams/{cardId}/invite/batch and PUT /api/v1/teams/{cardId}/status/batch pair.
+//
+//   k6 run -e SINGLE_CARD_ID=1 -e BATCH_CARD_ID=2 -e FIRST_USER_ID=1 load-tests/members-batch.js
+//
+// Both cards must exist and the users FIRST_USER_ID .. FIRST_USER_ID + USERS - 1 must exist without
+// a membership on them; use two cards so the scenarios do not collide. The summary prints the
+// time each scenario took for the whole cohort.
+import http from 'k6/http';
+import { check } from 'k6';
+import { Trend } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8081';
+const SINGLE_CARD_ID = Number(__ENV.SINGLE_CARD_ID || 1);
+const BATCH_CARD_ID = Number(__ENV.BATCH_CARD_ID || 2);
+const FIRST_USER_ID = Number(__ENV.FIRST_USER_ID || 1);
+const USERS = Number(__ENV.USERS || 500);
+const PARAMS = { headers: { 'Content-Type': 'application/json' }, timeout: '60s' };
+
+const singleDuration = new Trend('cohort_single_ms', true);
+const batchDuration = new Trend('cohort_batch_ms', true);
+
+export const options = {
+    scenarios: {
+        single: { executor: 'per-vu-iterations', exec: 'single', vus: 1, iterations: 1, maxDuration: '30m' },
+        batch: {
+            executor: 'per-vu-iterations',
+            exec: 'batch',
+            vus: 1,
+            iterations: 1,
+            maxDuration: '30m',
+            startTime: __ENV.BATCH_START || '0s',
+        },
+    },
+};
+
+function userIds() {
+    return Array.from({ length: USERS }, (_, i) => FIRST_USER_ID + i);
+}
+
+export function single() {
+    const start = Date.now();
+    for (const userId of userIds()) {
+        const invited = http.post(`${BASE_URL}/api/v1/teams/${SINGLE_CARD_ID}/invite`,
+            JSON.stringify({ userId, cardId: SINGLE_CARD_ID }), PARAMS);
+        check(invited, { 'invite status is 201': (r) => r.status === 201 });
+        const accepted = http.put(`${BASE_URL}/api/v1/teams/${SINGLE_CARD_ID}/status?userId=${userId}&status=JOINED`,
+            null, PARAMS);
+        check(accepted, { 'status change is 200': (r) => r.status === 200 });
+    }
+    singleDuration.add(Date.now() - start);
+}
+
+export function batch() {
+    const start = Date.now();
+    const invited = http.post(`${BASE_URL}/api/v1/teams/${BATCH_CARD_ID}/invite/batch`,
+        JSON.stringify({ userIds: userIds() }), PARAMS);
+    check(invited, { 'all invited': (r) => r.status === 200 && r.json('failed') === 0 });
+    const accepted = http.put(`${BASE_URL}/api/v1/teams/${BATCH_CARD_ID}/status/batch`,
+        JSON.stringify({ userIds: userIds(), status: 'JOINED' }), PARAMS);
+    check(accepted, { 'all accepted': (r) => r.status === 200 && r.json('failed') === 0 });
+    batchDuration.add(Date.now() - start);
+}
+
+export function handleSummary(data) {
+    const took = (name) => (data.metrics[name] ? data.metrics[name].values.max.toFixed(0) : '-');
+    return {
+        stdout: `${USERS} users, one request each: ${took('cohort_single_ms')} ms\n`
+            + `${USERS} users, batch endpoints: ${took('cohort_batch_ms')} ms\n`,
+    };
+}
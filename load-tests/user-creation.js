@@ -0,0 +1,53 @@
+// Measures how fast user creation notifications drain through the partitioned
+// send-userCreationNotificationSms topic: creates a cohort of users, then waits until the users
+// service has counted a communication confirmation for each of them.
+//
+//   k6 run -e FIRST_MOBILE=5000000000 load-tests/user-creation.js
+//
+// Run it once against a fresh topic created with one partition
+// (SPRING_CLOUD_STREAM_BINDINGS_USERCREATION-OUT-0_PRODUCER_PARTITION-COUNT=1 on the users service)
+// and once with the default three, with a new FIRST_MOBILE each time so the mobile numbers are
+// unused. The message service runs one consumer per partition, so the drain time should drop with
+// the partition count while each user's messages stay on one partition in order.
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+import { Trend } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8083';
+const FIRST_MOBILE = Number(__ENV.FIRST_MOBILE || 5000000000);
+const USERS = Number(__ENV.USERS || 1000);
+const PARAMS = { headers: { 'Content-Type': 'application/json' }, timeout: '60s' };
+const CONFIRMATIONS = `${BASE_URL}/actuator/metrics/users.emails.sent.confirmations?tag=result:matched`;
+
+const drainDuration = new Trend('cohort_drain_ms', true);
+
+export const options = {
+    scenarios: {
+        cohort: { executor: 'per-vu-iterations', vus: 1, iterations: 1, maxDuration: '30m' },
+    },
+};
+
+function confirmations() {
+    const response = http.get(CONFIRMATIONS);
+    // The counter is registered on the first confirmation
+    return response.status === 200 ? response.json('measurements.0.value') : 0;
+}
+
+export default function () {
+    const before = confirmations();
+    const start = Date.now();
+    for (let i = 0; i < USERS; i++) {
+        const mobileNumber = String(FIRST_MOBILE + i);
+        const created = http.post(`${BASE_URL}/api/v1/create`, JSON.stringify({
+            firstName: `First ${i}`,
+            lastName: `Last ${i}`,
+            email: `load${mobileNumber}@example.com`,
+            mobileNumber,
+        }), PARAMS);
+        check(created, { 'create status is 201': (r) => r.status === 201 });
+    }
+    while (confirmations() - before < USERS && Date.now() - start < 30 * 60 * 1000) {
+        sleep(0.5);
+    }
+    drainDuration.add(Date.now() - start);
+}
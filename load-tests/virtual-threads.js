@@ -0,0 +1,49 @@
+// Compares request throughput of the teams service with platform and virtual threads.
+//
+// The build version endpoint sleeps for teams.build-version.delay-ms, standing in for a slow
+// downstream call. Run the service once per mode and the script against each:
+//
+//   SPRING_THREADS_VIRTUAL_ENABLED=false TEAMS_BUILD_VERSION_DELAY_MS=1000 java -jar teams/target/teams-*.jar
+//   k6 run -e MODE=platform load-tests/virtual-threads.js
+//
+//   SPRING_THREADS_VIRTUAL_ENABLED=true TEAMS_BUILD_VERSION_DELAY_MS=1000 java -jar teams/target/teams-*.jar
+//   k6 run -e MODE=virtual load-tests/virtual-threads.js
+//
+// With 200 Tomcat threads and a 1 s delay, platform mode tops out near 200 req/s; virtual
+// mode should follow the arrival rate until another limit (connections, CPU) is hit.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8081';
+const RATE = Number(__ENV.RATE || 800);
+
+export const options = {
+    scenarios: {
+        slow_downstream: {
+            executor: 'constant-arrival-rate',
+            rate: RATE,
+            timeUnit: '1s',
+            duration: __ENV.DURATION || '60s',
+            preAllocatedVUs: RATE * 2,
+            maxVUs: RATE * 4,
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+    tags: { mode: __ENV.MODE || 'unknown' },
+};
+
+export default function () {
+    const response = http.get(`${BASE_URL}/api/v1/teams/build-version`, { timeout: '30s' });
+    check(response, { 'status is 200': (r) => r.status === 200 });
+}
+
+export function handleSummary(data) {
+    const mode = __ENV.MODE || 'unknown';
+    const requests = data.metrics.http_reqs.values;
+    const duration = data.metrics.http_req_duration.values;
+    const line = `${mode}: ${requests.rate.toFixed(1)} req/s, p95 ${duration['p(95)'].toFixed(0)} ms, `
+        + `dropped ${data.metrics.dropped_iterations ? data.metrics.dropped_iterations.values.count : 0}\n`;
+    return { stdout: line };
+}
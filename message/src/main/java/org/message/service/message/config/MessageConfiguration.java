@@ -1,5 +1,8 @@
 package org.message.service.message.config;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.message.service.message.dto.UserMessageDto;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -9,6 +12,7 @@ import org.springframework.kafka.core.KafkaTemplate;
 public class MessageConfiguration {
 
     private final KafkaTemplate<Integer, String> kafkaTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
 
     public MessageConfiguration(KafkaTemplate<Integer, String> kafkaTemplate) {
         this.kafkaTemplate = kafkaTemplate;
@@ -20,10 +24,12 @@ public class MessageConfiguration {
         kafkaTemplate.send("communication-sent", email);
     }
 
+    // The message carries the whole user (UserMessageDto as JSON), so no lookup is needed
     @KafkaListener(id="sms", topics="send-userCreationNotificationSms")
-    public void sms(String mobileNumber) {
-        System.out.println("Sms is sent to "  + mobileNumber);
-        kafkaTemplate.send("communication-sent", mobileNumber);
+    public void sms(String message) throws JsonProcessingException {
+        UserMessageDto user = objectMapper.readValue(message, UserMessageDto.class);
+        System.out.println("Sms is sent to "  + user.mobileNumber());
+        kafkaTemplate.send("communication-sent", user.mobileNumber());
     }
 
 }
@@ -0,0 +1,4 @@
+package org.message.service.message.dto;
+
+public record UserMessageDto(Long id, String firstname, String lastname, String email, String mobileNumber) {
+}
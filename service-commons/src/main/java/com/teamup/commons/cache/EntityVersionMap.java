@@ -0,0 +1,103 @@
+package com.teamup.commons.cache;
+
+import com.teamup.commons.util.TransactionUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Small map of the latest known version per entity, used to answer If-None-Match requests
+ * without loading the entity.
+ * <p>
+ * Versions are recorded when an entity is read and evicted after a change commits. Entries
+ * expire after {@code etag.version-map.ttl-ms}, which bounds how long a change made by another
+ * instance can go unnoticed.
+ */
+@Component
+public class EntityVersionMap {
+
+    private final Map<String, VersionEntry> versions;
+    private final long ttlMillis;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public EntityVersionMap(MeterRegistry meterRegistry,
+                            @Value("${etag.version-map.ttl-ms:5000}") long ttlMillis,
+                            @Value("${etag.version-map.max-entries:10000}") int maxEntries) {
+        this.ttlMillis = ttlMillis;
+        this.versions = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VersionEntry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+        Gauge.builder("etag.version.map.size", versions, Map::size)
+                .description("Entities with a known version")
+                .register(meterRegistry);
+        this.hits = Counter.builder("etag.version.lookups").tag("result", "hit")
+                .description("Version checks answered from memory")
+                .register(meterRegistry);
+        this.misses = Counter.builder("etag.version.lookups").tag("result", "miss")
+                .description("Version checks answered by the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the current version of an entity, reading it with the loader when it is not known
+     *
+     * @param type the entity type, e.g. "card"
+     * @param id the ID of the entity
+     * @param loader reads the version from the database
+     * @return the current version
+     */
+    public Long getVersion(String type, Long id, Supplier<Long> loader) {
+        String key = type + ":" + id;
+        VersionEntry entry = versions.get(key);
+        if (entry != null && System.currentTimeMillis() - entry.storedAt() < ttlMillis) {
+            hits.increment();
+            return entry.version();
+        }
+        misses.increment();
+        Long version = loader.get();
+        record(type, id, version);
+        return version;
+    }
+
+    /**
+     * Remembers the version of an entity that was just read. An older version never replaces a newer one.
+     *
+     * @param type the entity type
+     * @param id the ID of the entity
+     * @param version the version read
+     */
+    public void record(String type, Long id, Long version) {
+        if (version == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        versions.merge(type + ":" + id, new VersionEntry(version, now),
+                (previous, current) -> previous.version() > current.version() ? previous : current);
+    }
+
+    /**
+     * Forgets the version of an entity once the current transaction commits
+     *
+     * @param type the entity type
+     * @param id the ID of the changed or deleted entity
+     */
+    public void evict(String type, Long id) {
+        TransactionUtils.afterCommit(() -> versions.remove(type + ":" + id));
+    }
+
+    private record VersionEntry(long version, long storedAt) {
+    }
+}
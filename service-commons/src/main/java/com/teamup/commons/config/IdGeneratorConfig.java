@@ -0,0 +1,42 @@
+package com.teamup.commons.config;
+
+import com.teamup.commons.id.IdGenerator;
+import com.teamup.commons.id.SnowflakeIdGenerator;
+import com.teamup.commons.id.SnowflakeIdentifierGenerator;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Entity ID generator of this instance. The node ID comes from {@code ids.node-id} and must be
+ * unique among the running instances of a service: two instances with the same node ID can issue
+ * the same ID, so there is no derived default and the service does not start without it.
+ */
+@Configuration
+public class IdGeneratorConfig {
+
+    @Bean
+    public SnowflakeIdGenerator idGenerator(MeterRegistry meterRegistry,
+                                            @Value("${ids.node-id:-1}") long nodeId,
+                                            @Value("${ids.node-bits:5}") int nodeBits,
+                                            @Value("${ids.sequence-bits:7}") int sequenceBits,
+                                            @Value("${ids.max-backward-ms:10}") long maxBackwardMillis) {
+        if (nodeId < 0) {
+            throw new IllegalStateException("ids.node-id (IDS_NODE_ID) is not set; give every instance of the service"
+                    + " its own node ID between 0 and " + ((1L << nodeBits) - 1));
+        }
+        SnowflakeIdGenerator idGenerator = new SnowflakeIdGenerator(nodeId, nodeBits, sequenceBits, maxBackwardMillis);
+        FunctionCounter.builder("ids.clock.behind", idGenerator, SnowflakeIdGenerator::getClockBehindEvents)
+                .description("IDs generated while the wall clock was behind the last issued timestamp")
+                .register(meterRegistry);
+        return idGenerator;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer idGeneratorCustomizer(IdGenerator idGenerator) {
+        return properties -> properties.put(SnowflakeIdentifierGenerator.ID_GENERATOR_SETTING, idGenerator);
+    }
+}
@@ -0,0 +1,51 @@
+package com.teamup.commons.config;
+
+import com.teamup.commons.diagnostics.sql.InstrumentedDataSource;
+import com.teamup.commons.diagnostics.sql.SqlEndpointInterceptor;
+import com.teamup.commons.diagnostics.sql.SqlMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Times every SQL statement and labels it with the endpoint and repository method that issued it,
+ * replacing {@code show-sql} as the way to see what the service sends to the database.
+ * <p>
+ * Only the {@code dataSource} bean used by JPA and {@code JdbcTemplate} is wrapped, so with a
+ * read replica configured statements are counted once, whichever pool they end up on.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sql.instrumentation.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlInstrumentationConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<SqlMetrics> sqlMetrics;
+
+    public SqlInstrumentationConfig(ObjectProvider<SqlMetrics> sqlMetrics) {
+        this.sqlMetrics = sqlMetrics;
+    }
+
+    @Bean
+    public static BeanPostProcessor sqlInstrumentationPostProcessor(ObjectProvider<SqlMetrics> sqlMetrics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof InstrumentedDataSource)) {
+                    return new InstrumentedDataSource(dataSource, sqlMetrics::getObject);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SqlEndpointInterceptor(sqlMetrics.getObject()));
+    }
+}
@@ -0,0 +1,31 @@
+package com.teamup.commons.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Makes {@code @Transactional(readOnly = true)} service methods eligible for the replica.
+ * <p>
+ * Only service methods opt in: Spring Data repositories are read-only by default, and a
+ * standalone {@code findById} followed by a {@code save} must not read a stale version.
+ */
+@Aspect
+@Component
+public class ReadOnlyRoutingAspect {
+
+    @Around("@within(org.springframework.stereotype.Service) && @annotation(transactional)")
+    public Object route(ProceedingJoinPoint joinPoint, Transactional transactional) throws Throwable {
+        if (!transactional.readOnly()) {
+            return joinPoint.proceed();
+        }
+        RoutingContext.enterReadOnly();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            RoutingContext.exitReadOnly();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.teamup.commons.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Hands out replica connections to read-only service transactions and primary connections to
+ * everything else.
+ * <p>
+ * It has to sit behind a {@code LazyConnectionDataSourceProxy}: the transaction manager asks for
+ * a connection before the read-only flag of the transaction is published, so the target can
+ * only be chosen when the first statement runs.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.primaryConnections = Counter.builder("datasource.routing.connections").tag("target", "primary")
+                .description("Connections taken from the primary pool")
+                .register(meterRegistry);
+        this.replicaConnections = Counter.builder("datasource.routing.connections").tag("target", "replica")
+                .description("Connections taken from the replica pool")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (readOnly && RoutingContext.replicaAllowed()) {
+            replicaConnections.increment();
+            return Target.REPLICA;
+        }
+        if (!readOnly && TransactionSynchronizationManager.isActualTransactionActive()) {
+            RoutingContext.markWrite();
+        }
+        primaryConnections.increment();
+        return Target.PRIMARY;
+    }
+}
@@ -0,0 +1,69 @@
+package com.teamup.commons.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Keeps a client on the primary for a short window after it wrote, so it does not read data the
+ * replica has not applied yet.
+ * <p>
+ * The first write of a request sets a cookie holding the end of the window; requests carrying a
+ * cookie that has not expired skip the replica.
+ */
+@Component
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "primary-until";
+
+    private final long windowMillis;
+
+    public ReadYourWritesFilter(@Value("${datasource.routing.read-your-writes-ms:2000}") long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RoutingContext.beginRequest(withinWindow(request), () -> openWindow(response));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RoutingContext.endRequest();
+        }
+    }
+
+    private boolean withinWindow(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return false;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return System.currentTimeMillis() < Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException exception) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void openWindow(HttpServletResponse response) {
+        if (response.isCommitted()) {
+            return;
+        }
+        Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(System.currentTimeMillis() + windowMillis));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.max(1, (windowMillis + 999) / 1000));
+        response.addCookie(cookie);
+    }
+}
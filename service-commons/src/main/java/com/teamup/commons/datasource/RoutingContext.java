@@ -0,0 +1,66 @@
+package com.teamup.commons.datasource;
+
+/**
+ * Per-thread state deciding whether a connection may come from the replica.
+ * <p>
+ * A read-only service method marks the thread as replica eligible for its duration. A request
+ * that already wrote, or that arrives inside the read-your-writes window of an earlier write by
+ * the same client, is pinned to the primary.
+ */
+public final class RoutingContext {
+
+    private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+
+    private RoutingContext() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Starts tracking an HTTP request
+     *
+     * @param pinnedToPrimary true when the client wrote recently and must read its own writes
+     * @param onFirstWrite    called once, when the request first opens a read-write transaction
+     */
+    public static void beginRequest(boolean pinnedToPrimary, Runnable onFirstWrite) {
+        State state = STATE.get();
+        state.pinnedToPrimary = pinnedToPrimary;
+        state.onFirstWrite = onFirstWrite;
+    }
+
+    public static void endRequest() {
+        STATE.remove();
+    }
+
+    static void enterReadOnly() {
+        STATE.get().readOnlyDepth++;
+    }
+
+    static void exitReadOnly() {
+        STATE.get().readOnlyDepth--;
+    }
+
+    static boolean replicaAllowed() {
+        State state = STATE.get();
+        return state.readOnlyDepth > 0 && !state.pinnedToPrimary;
+    }
+
+    /**
+     * Pins the rest of the request to the primary and opens the read-your-writes window
+     */
+    static void markWrite() {
+        State state = STATE.get();
+        state.pinnedToPrimary = true;
+        if (state.onFirstWrite != null) {
+            Runnable onFirstWrite = state.onFirstWrite;
+            state.onFirstWrite = null;
+            onFirstWrite.run();
+        }
+    }
+
+    private static final class State {
+
+        private int readOnlyDepth;
+        private boolean pinnedToPrimary;
+        private Runnable onFirstWrite;
+    }
+}
@@ -0,0 +1,89 @@
+package com.teamup.commons.diagnostics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier, e.g. while blocking inside a
+ * {@code synchronized} block of the JDBC driver, by listening to the JFR
+ * {@code jdk.VirtualThreadPinned} event.
+ * <p>
+ * Only active in virtual-thread mode. Pinned periods shorter than
+ * {@code diagnostics.virtual-threads.pinned-threshold-ms} are ignored.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String SUBMIT_FAILED_EVENT = "jdk.VirtualThreadSubmitFailed";
+    private static final int LOGGED_FRAMES = 5;
+
+    private final RecordingStream recordingStream = new RecordingStream();
+    private final Timer pinned;
+    private final Counter submitFailed;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${diagnostics.virtual-threads.pinned-threshold-ms:20}") long thresholdMillis) {
+        this.pinned = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Periods a virtual thread blocked while pinned to its carrier thread")
+                .register(meterRegistry);
+        this.submitFailed = Counter.builder("jvm.threads.virtual.submit.failed")
+                .description("Virtual threads that could not be started or unparked")
+                .register(meterRegistry);
+        recordingStream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMillis)).withStackTrace();
+        recordingStream.enable(SUBMIT_FAILED_EVENT);
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.onEvent(SUBMIT_FAILED_EVENT, event -> submitFailed.increment());
+    }
+
+    @PostConstruct
+    public void start() {
+        recordingStream.startAsync();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        if (log.isDebugEnabled()) {
+            log.debug("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), topFrames(event));
+        }
+    }
+
+    private static String topFrames(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return "unknown";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < Math.min(LOGGED_FRAMES, frames.size()); i++) {
+            RecordedFrame frame = frames.get(i);
+            builder.append(System.lineSeparator()).append("    at ")
+                    .append(frame.getMethod().getType().getName()).append('.').append(frame.getMethod().getName())
+                    .append(':').append(frame.getLineNumber());
+        }
+        return builder.toString();
+    }
+
+    @PreDestroy
+    public void stop() {
+        recordingStream.close();
+    }
+}
@@ -0,0 +1,128 @@
+package com.teamup.commons.diagnostics.sql;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Supplier;
+
+/**
+ * Wraps the application data source so every statement execution, whether issued by Hibernate or
+ * by a {@code JdbcTemplate}, is timed and reported to {@link SqlMetrics}.
+ * <p>
+ * Connections and statements are JDK proxies around the pooled ones; only {@code execute*} calls
+ * are measured, and a JDBC batch counts as one statement.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+    private final Supplier<SqlMetrics> sqlMetrics;
+
+    public InstrumentedDataSource(DataSource targetDataSource, Supplier<SqlMetrics> sqlMetrics) {
+        super(targetDataSource);
+        this.sqlMetrics = sqlMetrics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException exception) {
+            throw exception.getTargetException();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "prepareStatement":
+                    return wrap(proxy, PreparedStatement.class, InstrumentedDataSource.invoke(target, method, args), (String) args[0]);
+                case "prepareCall":
+                    return wrap(proxy, CallableStatement.class, InstrumentedDataSource.invoke(target, method, args), (String) args[0]);
+                case "createStatement":
+                    return wrap(proxy, Statement.class, InstrumentedDataSource.invoke(target, method, args), null);
+                default:
+                    return InstrumentedDataSource.invoke(target, method, args);
+            }
+        }
+
+        private Object wrap(Object connection, Class<? extends Statement> type, Object statement, String sql) {
+            return Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(), new Class<?>[]{type},
+                    new StatementHandler(connection, statement, sql));
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Object connection;
+        private final Object target;
+        private String sql;
+
+        private StatementHandler(Object connection, Object target, String sql) {
+            this.connection = connection;
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("equals")) {
+                return proxy == args[0];
+            }
+            if (name.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            if (name.equals("getConnection")) {
+                return connection;
+            }
+            if (name.equals("addBatch") && args != null && args.length == 1 && sql == null) {
+                // Statement.addBatch(String): keep the first statement as the label of the batch
+                sql = (String) args[0];
+            }
+            if (!name.startsWith("execute")) {
+                return InstrumentedDataSource.invoke(target, method, args);
+            }
+            String executed = args != null && args.length > 0 && args[0] instanceof String text ? text : sql;
+            long start = System.nanoTime();
+            try {
+                return InstrumentedDataSource.invoke(target, method, args);
+            } finally {
+                sqlMetrics.get().recordStatement(executed, System.nanoTime() - start);
+            }
+        }
+    }
+}
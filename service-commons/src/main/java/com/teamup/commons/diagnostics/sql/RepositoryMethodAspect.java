@@ -0,0 +1,46 @@
+package com.teamup.commons.diagnostics.sql;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Labels the SQL statements issued inside a repository call with the repository method. Covers
+ * Spring Data repositories as well as {@code @Repository} classes working on plain JDBC.
+ */
+@Aspect
+@Component
+public class RepositoryMethodAspect {
+
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("this(org.springframework.data.repository.Repository) || @within(org.springframework.stereotype.Repository)")
+    public Object labelStatements(ProceedingJoinPoint joinPoint) throws Throwable {
+        String previous = SqlContext.enterRepository(
+                repositoryName(joinPoint.getThis()) + "." + joinPoint.getSignature().getName());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            SqlContext.exitRepository(previous);
+        }
+    }
+
+    private String repositoryName(Object repository) {
+        return repositoryNames.computeIfAbsent(repository.getClass(), type -> {
+            if (repository instanceof org.springframework.data.repository.Repository<?, ?>) {
+                // Spring Data repositories are proxies; name them after the interface declared in this service
+                for (Class<?> userInterface : type.getInterfaces()) {
+                    if (!userInterface.getName().startsWith("org.springframework.")) {
+                        return userInterface.getSimpleName();
+                    }
+                }
+            }
+            return ClassUtils.getUserClass(type).getSimpleName();
+        });
+    }
+}
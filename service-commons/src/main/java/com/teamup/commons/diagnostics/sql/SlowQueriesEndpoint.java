@@ -0,0 +1,33 @@
+package com.teamup.commons.diagnostics.sql;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/slowqueries}: the statements kept by the {@link SlowQueryLog}, slowest first.
+ * A DELETE empties the log.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueriesEndpoint {
+
+    private final SqlMetrics sqlMetrics;
+
+    public SlowQueriesEndpoint(SqlMetrics sqlMetrics) {
+        this.sqlMetrics = sqlMetrics;
+    }
+
+    @ReadOperation
+    public List<SlowQueryLog.SlowQuery> slowQueries() {
+        return sqlMetrics.getSlowQueryLog().snapshot();
+    }
+
+    @DeleteOperation
+    public void clear() {
+        sqlMetrics.getSlowQueryLog().clear();
+    }
+}
@@ -0,0 +1,72 @@
+package com.teamup.commons.diagnostics.sql;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Fixed-size ring buffer of the latest statements slower than the threshold; once full, the
+ * oldest entry is dropped.
+ * <p>
+ * Bind parameters never reach the log because only the statement text is captured. Literals
+ * written into the text itself (strings and numbers) are replaced by {@code ?}.
+ */
+public class SlowQueryLog {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+
+    private final int capacity;
+    private final Deque<SlowQuery> entries;
+
+    public SlowQueryLog(int capacity) {
+        this.capacity = capacity;
+        this.entries = new ArrayDeque<>(capacity);
+    }
+
+    /**
+     * Adds a slow statement, dropping the oldest entry when the buffer is full
+     */
+    public void add(String sql, long durationMillis, String endpoint, String repository) {
+        SlowQuery slowQuery = new SlowQuery(Instant.now(), durationMillis, endpoint, repository, redact(sql));
+        synchronized (entries) {
+            if (entries.size() == capacity) {
+                entries.removeFirst();
+            }
+            entries.addLast(slowQuery);
+        }
+    }
+
+    /**
+     * @return the logged statements, slowest first
+     */
+    public List<SlowQuery> snapshot() {
+        List<SlowQuery> snapshot;
+        synchronized (entries) {
+            snapshot = new ArrayList<>(entries);
+        }
+        snapshot.sort(Comparator.comparingLong(SlowQuery::durationMillis).reversed());
+        return snapshot;
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    static String redact(String sql) {
+        if (sql == null) {
+            return null;
+        }
+        String redacted = STRING_LITERAL.matcher(sql).replaceAll("?");
+        return NUMBER_LITERAL.matcher(redacted).replaceAll("?");
+    }
+
+    public record SlowQuery(Instant at, long durationMillis, String endpoint, String repository, String sql) {
+    }
+}
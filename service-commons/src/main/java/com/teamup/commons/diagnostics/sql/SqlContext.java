@@ -0,0 +1,96 @@
+package com.teamup.commons.diagnostics.sql;
+
+/**
+ * Per-thread labels attached to the SQL statements a thread executes: the controller handler
+ * serving the request and the repository method being called.
+ * <p>
+ * Statements issued outside a repository call, such as the flush at commit or lazy loading while
+ * mapping, carry the endpoint only. Work handed to other threads (parallel lookups, async tasks,
+ * stream consumers) is not labelled.
+ */
+public final class SqlContext {
+
+    static final String NONE = "none";
+
+    private static final ThreadLocal<State> STATE = new ThreadLocal<>();
+
+    private SqlContext() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Starts labelling statements with the given handler
+     *
+     * @param endpoint the handler, e.g. "TeamController.fetchTeam"
+     */
+    public static void beginRequest(String endpoint) {
+        State state = new State();
+        state.endpoint = endpoint;
+        STATE.set(state);
+    }
+
+    /**
+     * Stops labelling statements of the current request
+     *
+     * @return the number of statements the request executed on this thread
+     */
+    public static int endRequest() {
+        State state = STATE.get();
+        STATE.remove();
+        return state != null ? state.statements : 0;
+    }
+
+    /**
+     * Labels statements with the repository method, unless an outer repository call already did
+     *
+     * @param method the repository method, e.g. "TeamMemberRepository.findByCardId"
+     * @return the label to restore with {@link #exitRepository(String)}
+     */
+    static String enterRepository(String method) {
+        State state = STATE.get();
+        if (state == null) {
+            state = new State();
+            STATE.set(state);
+        }
+        String previous = state.repository;
+        if (previous == null) {
+            state.repository = method;
+        }
+        return previous;
+    }
+
+    static void exitRepository(String previous) {
+        State state = STATE.get();
+        if (state == null) {
+            return;
+        }
+        state.repository = previous;
+        if (previous == null && state.endpoint == null) {
+            STATE.remove();
+        }
+    }
+
+    static String endpoint() {
+        State state = STATE.get();
+        return state != null && state.endpoint != null ? state.endpoint : NONE;
+    }
+
+    static String repository() {
+        State state = STATE.get();
+        return state != null && state.repository != null ? state.repository : NONE;
+    }
+
+    static void countStatement() {
+        State state = STATE.get();
+        if (state != null) {
+            state.statements++;
+        }
+    }
+
+    private static final class State {
+
+        private String endpoint;
+        private String repository;
+        private int statements;
+    }
+}
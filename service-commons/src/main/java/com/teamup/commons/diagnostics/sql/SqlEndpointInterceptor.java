@@ -0,0 +1,36 @@
+package com.teamup.commons.diagnostics.sql;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Labels the SQL statements of a request with its controller handler and records how many
+ * statements the request executed
+ */
+public class SqlEndpointInterceptor implements HandlerInterceptor {
+
+    private final SqlMetrics sqlMetrics;
+
+    public SqlEndpointInterceptor(SqlMetrics sqlMetrics) {
+        this.sqlMetrics = sqlMetrics;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            SqlContext.beginRequest(handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception exception) {
+        if (handler instanceof HandlerMethod) {
+            String endpoint = SqlContext.endpoint();
+            sqlMetrics.recordRequest(endpoint, SqlContext.endRequest());
+        }
+    }
+}
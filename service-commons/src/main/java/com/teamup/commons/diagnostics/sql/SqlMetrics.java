@@ -0,0 +1,104 @@
+package com.teamup.commons.diagnostics.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records every SQL statement executed through the instrumented data source.
+ * <p>
+ * {@code sql.statements} times statements by endpoint, repository method and operation, and
+ * {@code sql.statements.per.request} counts the statements of each request by endpoint.
+ * Statements slower than {@code sql.slow-query.threshold-ms} go to the {@link SlowQueryLog} and
+ * are logged at DEBUG.
+ */
+@Component
+public class SqlMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlMetrics.class);
+
+    private final MeterRegistry meterRegistry;
+    private final SlowQueryLog slowQueryLog;
+    private final long slowThresholdNanos;
+
+    private final Map<StatementKey, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> requestSummaries = new ConcurrentHashMap<>();
+
+    public SqlMetrics(MeterRegistry meterRegistry,
+                      @Value("${sql.slow-query.threshold-ms:200}") long slowThresholdMillis,
+                      @Value("${sql.slow-query.capacity:100}") int capacity) {
+        this.meterRegistry = meterRegistry;
+        this.slowQueryLog = new SlowQueryLog(capacity);
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+    }
+
+    /**
+     * Records an executed statement, or a JDBC batch of statements
+     *
+     * @param sql   the statement text, null when unknown
+     * @param nanos how long the execution took
+     */
+    public void recordStatement(String sql, long nanos) {
+        String endpoint = SqlContext.endpoint();
+        String repository = SqlContext.repository();
+        SqlContext.countStatement();
+        timers.computeIfAbsent(new StatementKey(endpoint, repository, operation(sql)), key -> Timer.builder("sql.statements")
+                        .description("SQL statements executed, by endpoint and repository method")
+                        .tag("endpoint", key.endpoint())
+                        .tag("repository", key.repository())
+                        .tag("operation", key.operation())
+                        .register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+        if (nanos >= slowThresholdNanos) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+            slowQueryLog.add(sql, millis, endpoint, repository);
+            log.debug("Slow statement ({} ms) in {} / {}: {}", millis, endpoint, repository, SlowQueryLog.redact(sql));
+        }
+    }
+
+    /**
+     * Records how many statements a request executed
+     *
+     * @param endpoint   the handler of the request
+     * @param statements the number of statements
+     */
+    public void recordRequest(String endpoint, int statements) {
+        requestSummaries.computeIfAbsent(endpoint, key -> DistributionSummary.builder("sql.statements.per.request")
+                        .description("SQL statements executed per request")
+                        .tag("endpoint", key)
+                        .register(meterRegistry))
+                .record(statements);
+    }
+
+    public SlowQueryLog getSlowQueryLog() {
+        return slowQueryLog;
+    }
+
+    private static String operation(String sql) {
+        if (sql == null) {
+            return "other";
+        }
+        String statement = sql.stripLeading();
+        int end = 0;
+        while (end < statement.length() && Character.isLetter(statement.charAt(end))) {
+            end++;
+        }
+        String keyword = statement.substring(0, end).toLowerCase(Locale.ROOT);
+        return switch (keyword) {
+            case "select", "insert", "update", "delete" -> keyword;
+            default -> "other";
+        };
+    }
+
+    private record StatementKey(String endpoint, String repository, String operation) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.teamup.commons.id;
+
+/**
+ * Source of entity IDs assigned before insert, see {@link SnowflakeId}
+ */
+public interface IdGenerator {
+
+    /**
+     * @return a new ID, unique across all nodes and greater than every ID this node returned before
+     */
+    long nextId();
+}
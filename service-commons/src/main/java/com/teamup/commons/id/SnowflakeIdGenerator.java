@@ -0,0 +1,113 @@
+package com.teamup.commons.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake-style IDs: milliseconds since {@link #EPOCH_MILLIS}, then the node ID, then a
+ * per-millisecond sequence.
+ * <p>
+ * The last timestamp and sequence are packed into one {@link AtomicLong} and advanced with
+ * compare-and-set, so concurrent callers never block. IDs are strictly increasing per node:
+ * when the sequence of a millisecond is used up, or the clock steps back by at most
+ * {@code maxBackwardMillis}, the generator keeps counting on its own timestamp instead of the
+ * wall clock. A larger step back is refused, because the node could otherwise repeat IDs.
+ * <p>
+ * With the default 5 node bits and 7 sequence bits IDs stay below 2<sup>53</sup>, so JavaScript
+ * clients can read them as numbers, for 69 years after the epoch.
+ */
+public class SnowflakeIdGenerator implements IdGenerator {
+
+    /**
+     * 2024-01-01T00:00:00Z
+     */
+    public static final long EPOCH_MILLIS = 1704067200000L;
+
+    private static final int TIMESTAMP_BITS = 41;
+
+    private final long nodeId;
+    private final int sequenceBits;
+    private final long sequenceMask;
+    private final int timestampShift;
+    private final long maxBackwardMillis;
+    private final LongSupplier clock;
+
+    /**
+     * Timestamp of the last ID, shifted left by sequenceBits, or-ed with its sequence
+     */
+    private final AtomicLong state = new AtomicLong();
+    private final LongAdder clockBehindEvents = new LongAdder();
+
+    public SnowflakeIdGenerator(long nodeId, int nodeBits, int sequenceBits, long maxBackwardMillis) {
+        this(nodeId, nodeBits, sequenceBits, maxBackwardMillis, System::currentTimeMillis);
+    }
+
+    SnowflakeIdGenerator(long nodeId, int nodeBits, int sequenceBits, long maxBackwardMillis, LongSupplier clock) {
+        if (nodeBits < 0 || sequenceBits < 1 || TIMESTAMP_BITS + nodeBits + sequenceBits > 63) {
+            throw new IllegalArgumentException("Invalid ID layout: " + nodeBits + " node bits and "
+                    + sequenceBits + " sequence bits");
+        }
+        if (nodeId < 0 || nodeId >= 1L << nodeBits) {
+            throw new IllegalArgumentException("Node ID " + nodeId + " does not fit in " + nodeBits + " bits");
+        }
+        this.nodeId = nodeId;
+        this.sequenceBits = sequenceBits;
+        this.sequenceMask = (1L << sequenceBits) - 1;
+        this.timestampShift = nodeBits + sequenceBits;
+        this.maxBackwardMillis = maxBackwardMillis;
+        this.clock = clock;
+    }
+
+    @Override
+    public long nextId() {
+        while (true) {
+            long current = state.get();
+            long lastTimestamp = current >>> sequenceBits;
+            long sequence = current & sequenceMask;
+            long now = clock.getAsLong() - EPOCH_MILLIS;
+
+            long timestamp;
+            long nextSequence;
+            if (now > lastTimestamp) {
+                timestamp = now;
+                nextSequence = 0;
+            } else {
+                if (lastTimestamp - now > maxBackwardMillis) {
+                    clockBehindEvents.increment();
+                    throw new IllegalStateException("Clock moved back by " + (lastTimestamp - now)
+                            + " ms, refusing to generate IDs for node " + nodeId);
+                }
+                if (now < lastTimestamp) {
+                    clockBehindEvents.increment();
+                }
+                if (sequence < sequenceMask) {
+                    timestamp = lastTimestamp;
+                    nextSequence = sequence + 1;
+                } else if (lastTimestamp + 1 - now <= maxBackwardMillis) {
+                    // Sequence exhausted: borrow the next millisecond
+                    timestamp = lastTimestamp + 1;
+                    nextSequence = 0;
+                } else {
+                    Thread.onSpinWait();
+                    continue;
+                }
+            }
+            if (state.compareAndSet(current, (timestamp << sequenceBits) | nextSequence)) {
+                return (timestamp << timestampShift) | (nodeId << sequenceBits) | nextSequence;
+            }
+        }
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * @return how often the wall clock was behind the last issued timestamp, because it stepped
+     * back or because the generator borrowed milliseconds under load
+     */
+    public long getClockBehindEvents() {
+        return clockBehindEvents.sum();
+    }
+}
@@ -0,0 +1,48 @@
+package com.teamup.commons.id;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+
+/**
+ * Hibernate side of {@link SnowflakeId}. The {@link IdGenerator} is handed over through the
+ * {@value #ID_GENERATOR_SETTING} Hibernate setting; without it (e.g. in a JPA slice test) a
+ * generator for node 0 is used.
+ */
+public class SnowflakeIdentifierGenerator implements BeforeExecutionGenerator {
+
+    public static final String ID_GENERATOR_SETTING = "teamup.id_generator";
+
+    private static final Logger log = LoggerFactory.getLogger(SnowflakeIdentifierGenerator.class);
+
+    private final IdGenerator idGenerator;
+
+    public SnowflakeIdentifierGenerator(SnowflakeId config, Member member, CustomIdGeneratorCreationContext context) {
+        Object configured = context.getServiceRegistry().requireService(ConfigurationService.class)
+                .getSettings().get(ID_GENERATOR_SETTING);
+        if (configured instanceof IdGenerator generator) {
+            this.idGenerator = generator;
+        } else {
+            log.warn("No {} configured for {}, using node 0", ID_GENERATOR_SETTING, member.getDeclaringClass().getSimpleName());
+            this.idGenerator = new SnowflakeIdGenerator(0, 5, 7, 0);
+        }
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return idGenerator.nextId();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
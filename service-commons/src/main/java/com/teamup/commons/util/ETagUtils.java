@@ -0,0 +1,46 @@
+package com.teamup.commons.util;
+
+public class ETagUtils {
+
+    private ETagUtils() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Builds the strong ETag of an entity representation
+     *
+     * @param id the ID of the entity
+     * @param version the version of the entity
+     * @return quoted entity tag
+     */
+    public static String etag(Long id, Long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    /**
+     * Checks an If-None-Match header against the current ETag, using the weak comparison
+     * required for If-None-Match
+     *
+     * @param ifNoneMatch the header value, possibly a comma separated list or "*"
+     * @param etag the current entity tag
+     * @return true if the client representation is still current
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
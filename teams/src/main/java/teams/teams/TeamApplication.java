@@ -4,10 +4,17 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import teams.teams.repository.SliceJpaRepository;
 
-@SpringBootApplication
+@SpringBootApplication(scanBasePackages = {"teams.teams", "com.teamup.commons"})
 @EnableJpaAuditing(auditorAwareRef = "auditAwareImpl")
+@EnableJpaRepositories(repositoryBaseClass = SliceJpaRepository.class)
 @EnableFeignClients
+@EnableScheduling
+@EnableAsync
 public class TeamApplication {
 
     public static void main(String[] args) {
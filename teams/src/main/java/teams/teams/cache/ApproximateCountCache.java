@@ -0,0 +1,147 @@
+package teams.teams.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongSupplier;
+
+/**
+ * Approximate totals for paged listings, so a page does not need a {@code SELECT COUNT(*)} per request.
+ * <p>
+ * The first request for a query runs the count and caches it. Later requests get the cached value;
+ * once it is older than {@code paging.count-cache.refresh-ms} the count is re-run on a background
+ * thread while the stale value keeps being served. Queries not requested for
+ * {@code paging.count-cache.max-idle-ms} are dropped, and beyond {@code paging.count-cache.max-entries}
+ * queries the least used ones make room for new ones.
+ */
+@Component
+public class ApproximateCountCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ApproximateCountCache.class);
+
+    private final Cache<String, CachedCount> counts;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final long refreshMillis;
+    private final ExecutorService executor;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter refreshes;
+
+    public ApproximateCountCache(MeterRegistry meterRegistry,
+                                 @Value("${paging.count-cache.refresh-ms:30000}") long refreshMillis,
+                                 @Value("${paging.count-cache.max-idle-ms:600000}") long maxIdleMillis,
+                                 @Value("${paging.count-cache.max-entries:1000}") int maxEntries) {
+        this.refreshMillis = refreshMillis;
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterAccess(Duration.ofMillis(maxIdleMillis))
+                .build();
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "count-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("paging.count.cache.size", counts, Cache::estimatedSize)
+                .description("Queries with a cached total")
+                .register(meterRegistry);
+        this.hits = Counter.builder("paging.count.cache.requests").tag("result", "hit")
+                .description("Page totals answered from the cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("paging.count.cache.requests").tag("result", "miss")
+                .description("Page totals that ran a count query on the request thread")
+                .register(meterRegistry);
+        this.refreshes = Counter.builder("paging.count.cache.refreshes")
+                .description("Count queries re-run in the background")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Turns a slice into a page. The total is exact when the slice is the last page, and taken
+     * from the cache otherwise.
+     *
+     * @param slice   the slice read without a count query
+     * @param key     identifies the query and its filters
+     * @param counter runs the count query
+     * @return a page whose total may lag behind recent inserts and deletes
+     */
+    public <T> Page<T> toPage(Slice<T> slice, String key, LongSupplier counter) {
+        Pageable pageable = slice.getPageable();
+        long seen = pageable.getOffset() + slice.getNumberOfElements();
+        if (!slice.hasNext() && (slice.hasContent() || pageable.getOffset() == 0)) {
+            return new PageImpl<>(slice.getContent(), pageable, seen);
+        }
+        // The cached total may be stale; never report fewer rows than this slice proves exist
+        long total = Math.max(count(key, counter), slice.hasNext() ? seen + 1 : seen);
+        return new PageImpl<>(slice.getContent(), pageable, total);
+    }
+
+    /**
+     * Builds the cache key of a query from its name and filter values
+     *
+     * @param query   the name of the listing, e.g. "cards"
+     * @param filters the filter values, null when not set
+     * @return the cache key
+     */
+    public static String key(String query, Object... filters) {
+        StringBuilder key = new StringBuilder(query);
+        for (Object filter : filters) {
+            key.append('|').append(filter);
+        }
+        return key.toString();
+    }
+
+    private long count(String key, LongSupplier counter) {
+        CachedCount cached = counts.getIfPresent(key);
+        if (cached == null) {
+            misses.increment();
+            long value = counter.getAsLong();
+            counts.put(key, new CachedCount(value, System.currentTimeMillis()));
+            return value;
+        }
+        hits.increment();
+        if (System.currentTimeMillis() - cached.refreshedAt() >= refreshMillis && refreshing.add(key)) {
+            executor.execute(() -> refresh(key, counter));
+        }
+        return cached.value();
+    }
+
+    private void refresh(String key, LongSupplier counter) {
+        try {
+            long value = counter.getAsLong();
+            // Not re-added if it expired or was evicted while the count ran
+            counts.asMap().computeIfPresent(key, (k, previous) -> new CachedCount(value, System.currentTimeMillis()));
+            refreshes.increment();
+        } catch (RuntimeException exception) {
+            log.warn("Could not refresh total of {}: {}", key, exception.getMessage());
+        } finally {
+            refreshing.remove(key);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private record CachedCount(long value, long refreshedAt) {
+    }
+}
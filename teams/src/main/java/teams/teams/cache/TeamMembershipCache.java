@@ -0,0 +1,91 @@
+package teams.teams.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.teamup.commons.util.TransactionUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Per-user cache of the IDs of the teams a user belongs to ("my teams").
+ * <p>
+ * Entries are evicted by the team service after every membership change commits. A load that
+ * overlaps an eviction is not cached, so a reader can never put back a list that was read
+ * before the change was committed. Changes made on other instances are not evicted here: entries
+ * expire {@code teams.membership-cache.ttl-ms} after they were loaded, which bounds how long
+ * they can be stale. The least recently used users are dropped once
+ * {@code teams.membership-cache.max-entries} is reached.
+ */
+@Component
+public class TeamMembershipCache {
+
+    private final Cache<Long, List<Long>> teamIdsByUser;
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public TeamMembershipCache(MeterRegistry meterRegistry,
+                               @Value("${teams.membership-cache.max-entries:10000}") int maxEntries,
+                               @Value("${teams.membership-cache.ttl-ms:30000}") long ttlMillis) {
+        this.teamIdsByUser = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .build();
+        Gauge.builder("teams.membership.cache.size", teamIdsByUser, Cache::estimatedSize)
+                .description("Users with cached team memberships")
+                .register(meterRegistry);
+        this.hits = Counter.builder("teams.membership.cache.requests").tag("result", "hit")
+                .description("Team membership lookups answered from the cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("teams.membership.cache.requests").tag("result", "miss")
+                .description("Team membership lookups loaded from the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached team IDs of the user, loading and caching them on a miss
+     *
+     * @param userId the ID of the user
+     * @param loader reads the team IDs from the database
+     * @return the IDs of the teams the user belongs to
+     */
+    public List<Long> getTeamIds(Long userId, Supplier<List<Long>> loader) {
+        List<Long> teamIds = teamIdsByUser.getIfPresent(userId);
+        if (teamIds != null) {
+            hits.increment();
+            return teamIds;
+        }
+        misses.increment();
+        long loadedAt = generation.get();
+        teamIds = List.copyOf(loader.get());
+        synchronized (teamIdsByUser) {
+            if (generation.get() == loadedAt) {
+                teamIdsByUser.put(userId, teamIds);
+            }
+        }
+        return teamIds;
+    }
+
+    /**
+     * Evicts the user's entry once the current transaction commits
+     *
+     * @param userId the ID of the user whose memberships changed
+     */
+    public void evict(Long userId) {
+        TransactionUtils.afterCommit(() -> {
+            synchronized (teamIdsByUser) {
+                generation.incrementAndGet();
+                teamIdsByUser.invalidate(userId);
+            }
+        });
+    }
+}
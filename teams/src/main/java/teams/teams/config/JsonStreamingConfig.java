@@ -0,0 +1,41 @@
+package teams.teams.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import teams.teams.controller.CardPageHttpMessageConverter;
+
+import java.util.List;
+
+/**
+ * Puts the streaming card page converter in front of the Jackson converter, so card listings
+ * are written from their rows instead of being mapped to DTOs first.
+ * <p>
+ * With {@code cards.listing.streaming=false} Jackson serializes the same pages through
+ * {@code CardRowPageDto#getContent()}, which maps every row to a DTO; useful to compare both paths under load.
+ */
+@Configuration
+@ConditionalOnProperty(name = "cards.listing.streaming", havingValue = "true", matchIfMissing = true)
+public class JsonStreamingConfig implements WebMvcConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(JsonStreamingConfig.class);
+
+    private final ObjectMapper objectMapper;
+
+    public JsonStreamingConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        if (!CardPageHttpMessageConverter.isCompatible(objectMapper)) {
+            log.warn("Card listings are serialized by Jackson: spring.jackson settings differ from what the streaming writer produces");
+            return;
+        }
+        converters.add(0, new CardPageHttpMessageConverter(objectMapper));
+    }
+}
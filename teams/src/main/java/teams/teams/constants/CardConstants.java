@@ -18,6 +18,22 @@ public class CardConstants {
     public static final String MESSAGE_404 = "Card not found";
     public static final String MESSAGE_500 = "An error occurred. Please try again or contact support.";
 
+    // Cursor pagination
+    public static final int DEFAULT_PAGE_SIZE = 10;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final String HEADER_NEXT_CURSOR = "X-Next-Cursor";
+
+    // Key of cards in the ETag version map
+    public static final String VERSION_TYPE = "card";
+
+    // Hibernate second-level cache region of cards
+    public static final String CACHE_REGION = "card";
+
+    // Outcome of an item of a bulk request
+    public static final String BATCH_CREATED = "CREATED";
+    public static final String BATCH_UPDATED = "UPDATED";
+    public static final String BATCH_FAILED = "FAILED";
+
     private CardConstants() {
         // Private constructor to prevent instantiation
     }
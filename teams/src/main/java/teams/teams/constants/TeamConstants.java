@@ -25,6 +25,20 @@ public class TeamConstants {
     // Default role for join/invite requests
     public static final String ROLE_PARTICIPANT = "PARTICIPANT";
 
+    // Key of teams in the ETag version map
+    public static final String VERSION_TYPE = "team";
+
+    // Hibernate second-level cache region of teams
+    public static final String CACHE_REGION = "team";
+
+    // Unique key of team_member that rejects a second membership of a user on the same card
+    public static final String UK_MEMBER_CARD_USER = "uk_team_member_card_user";
+
+    public static final String MESSAGE_ALREADY_MEMBER = "User is already a member or has a pending invitation";
+
+    // Outcome of a bulk request item that was skipped
+    public static final String BATCH_FAILED = "FAILED";
+
     private TeamConstants() {
         // Private constructor to prevent instantiation
     }
@@ -0,0 +1,22 @@
+package teams.teams.constants;
+
+public class TeamEventConstants {
+
+    // Headers of the events published to the team events topic
+    public static final String EVENT_TYPE_HEADER = "eventType";
+    public static final String EVENT_ID_HEADER = "eventId";
+
+    // Card and membership event types
+    public static final String CARD_CREATED = "CARD_CREATED";
+    public static final String CARD_UPDATED = "CARD_UPDATED";
+    public static final String CARD_DELETED = "CARD_DELETED";
+    public static final String MEMBER_JOIN_REQUESTED = "MEMBER_JOIN_REQUESTED";
+    public static final String MEMBER_INVITED = "MEMBER_INVITED";
+    public static final String MEMBER_JOINED = "MEMBER_JOINED";
+    public static final String MEMBER_REJECTED = "MEMBER_REJECTED";
+    public static final String MEMBER_REMOVED = "MEMBER_REMOVED";
+
+    private TeamEventConstants() {
+        // Private constructor to prevent instantiation
+    }
+}
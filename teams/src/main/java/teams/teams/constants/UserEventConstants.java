@@ -0,0 +1,16 @@
+package teams.teams.constants;
+
+public class UserEventConstants {
+
+    // Header carrying the user event type
+    public static final String EVENT_TYPE_HEADER = "eventType";
+
+    // User event types published by the users service
+    public static final String EVENT_CREATED = "CREATED";
+    public static final String EVENT_UPDATED = "UPDATED";
+    public static final String EVENT_DELETED = "DELETED";
+
+    private UserEventConstants() {
+        // Private constructor to prevent instantiation
+    }
+}
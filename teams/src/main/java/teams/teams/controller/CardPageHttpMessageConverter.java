@@ -0,0 +1,71 @@
+package teams.teams.controller;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.util.StreamUtils;
+import teams.teams.dto.CardRowPageDto;
+import teams.teams.mapper.CardJsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link CardRowPageDto} bodies with {@link CardJsonWriter} straight to the response
+ * stream. Registered ahead of the Jackson converter, which would otherwise map every row to a DTO.
+ * The generator comes from the application {@link ObjectMapper}, so output settings such as
+ * indentation still apply.
+ */
+public class CardPageHttpMessageConverter extends AbstractHttpMessageConverter<CardRowPageDto> {
+
+    private final ObjectMapper objectMapper;
+
+    public CardPageHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Tells whether {@link CardJsonWriter} writes what this mapper would: ISO-8601 timestamps at the
+     * system zone offset and null fields included, as with the Spring Boot defaults
+     *
+     * @param objectMapper the application mapper
+     * @return false if {@code spring.jackson.*} settings change dates, time zone or null handling
+     */
+    public static boolean isCompatible(ObjectMapper objectMapper) {
+        SerializationConfig config = objectMapper.getSerializationConfig();
+        JsonInclude.Include inclusion = config.getDefaultPropertyInclusion().getValueInclusion();
+        return !config.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                && !config.hasExplicitTimeZone()
+                && (inclusion == JsonInclude.Include.ALWAYS || inclusion == JsonInclude.Include.USE_DEFAULTS);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return CardRowPageDto.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected CardRowPageDto readInternal(Class<? extends CardRowPageDto> clazz, HttpInputMessage inputMessage) {
+        throw new UnsupportedOperationException("Card pages are only written");
+    }
+
+    @Override
+    protected void writeInternal(CardRowPageDto page, HttpOutputMessage outputMessage) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(
+                StreamUtils.nonClosing(outputMessage.getBody()), JsonEncoding.UTF8)) {
+            new CardJsonWriter(generator).write(page);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package teams.teams.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teamup.commons.util.ETagUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -7,26 +9,35 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import teams.teams.api.CardsApi;
+import teams.teams.api.model.CardBatchResponseDto;
+import teams.teams.api.model.CardBatchUpdateDto;
 import teams.teams.api.model.CardRequestDto;
 import teams.teams.api.model.CardResponseDto;
 import teams.teams.api.model.PagingCardResponseDto;
 import teams.teams.api.model.ResponseDto;
 import teams.teams.constants.CardConstants;
+import teams.teams.mapper.CardJsonWriter;
+import teams.teams.repository.projection.CardRow;
 import teams.teams.service.ICardsService;
 import teams.teams.util.PageUtils;
 
+import java.io.IOException;
 import java.util.List;
 
 @Tag(
@@ -39,13 +50,21 @@ import java.util.List;
 public class CardsController implements CardsApi {
 
     private final ICardsService cardsService;
+    private final ObjectMapper objectMapper;
 
     @Value("${build.version}")
     private String buildVersion;
 
+    /**
+     * Rows sent per flush by the exports: one flush per batch the driver fetches
+     */
+    @Value("${exports.fetch-size:1000}")
+    private int exportFlushRows;
+
     @Autowired
-    public CardsController(ICardsService cardsService) {
+    public CardsController(ICardsService cardsService, ObjectMapper objectMapper) {
         this.cardsService = cardsService;
+        this.objectMapper = objectMapper;
     }
 
     @Operation(
@@ -87,9 +106,18 @@ public class CardsController implements CardsApi {
             description = "HTTP Status OK"
     )
     @GetMapping("/fetch")
-    public ResponseEntity<CardResponseDto> getCardById(@RequestParam Long cardId) {
+    public ResponseEntity<CardResponseDto> getCardById(@RequestParam Long cardId,
+                                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String etag = ETagUtils.etag(cardId, cardsService.getCardVersion(cardId));
+            if (ETagUtils.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
         CardResponseDto cardResponseDto = cardsService.getCardById(cardId);
-        return ResponseEntity.ok(cardResponseDto);
+        return ResponseEntity.ok()
+                .eTag(ETagUtils.etag(cardId, cardResponseDto.getVersion()))
+                .body(cardResponseDto);
     }
 
     @Operation(
@@ -101,7 +129,13 @@ public class CardsController implements CardsApi {
             description = "HTTP Status OK"
     )
     @GetMapping("/fetchByUser")
-    public ResponseEntity<List<CardResponseDto>> getCardsByUserId(@RequestParam Long userId) {
+    public ResponseEntity<List<CardResponseDto>> getCardsByUserId(@RequestParam Long userId,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer size) {
+        if (cursor != null) {
+            Window<CardResponseDto> window = cardsService.getCardsByUserId(userId, cursor, pageSize(size));
+            return toCursorResponse(window);
+        }
         List<CardResponseDto> cardResponseDto = cardsService.getCardsByUserId(userId);
         return ResponseEntity.ok(cardResponseDto);
     }
@@ -139,6 +173,52 @@ public class CardsController implements CardsApi {
         return ResponseEntity.ok(updatedCard);
     }
 
+    @Operation(
+            summary = "Create Cards in Bulk REST API",
+            description = "Create up to 1000 cards with set-based checks and batched inserts"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK, with the outcome of every item"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Malformed batch, nothing was created",
+                    content = @Content(
+                            schema = @Schema(implementation = ResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<CardBatchResponseDto> createCardsBatch(
+            @Valid @RequestBody List<CardRequestDto> cardRequestDtos) {
+        return ResponseEntity.ok(cardsService.createCards(cardRequestDtos));
+    }
+
+    @Operation(
+            summary = "Update Cards in Bulk REST API",
+            description = "Update up to 1000 cards with set-based checks and batched updates"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK, with the outcome of every item"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Malformed batch, nothing was updated",
+                    content = @Content(
+                            schema = @Schema(implementation = ResponseDto.class)
+                    )
+            )
+    })
+    @PutMapping("/batch")
+    public ResponseEntity<CardBatchResponseDto> updateCardsBatch(
+            @Valid @RequestBody List<CardBatchUpdateDto> cardUpdateDtos) {
+        return ResponseEntity.ok(cardsService.updateCards(cardUpdateDtos));
+    }
+
     @Operation(
             summary = "Delete Card REST API",
             description = "Delete a card by ID"
@@ -191,26 +271,88 @@ public class CardsController implements CardsApi {
             }
     )
     @GetMapping("/fetchByTeam")
-    public ResponseEntity<List<CardResponseDto>> getCardsByTeamId(@RequestParam Long teamId) {
+    public ResponseEntity<List<CardResponseDto>> getCardsByTeamId(@RequestParam Long teamId,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer size) {
         if (teamId == null) {
             return ResponseEntity.badRequest().build();
         }
+        if (cursor != null) {
+            Window<CardResponseDto> window = cardsService.getCardsByTeamId(teamId, cursor, pageSize(size));
+            return toCursorResponse(window);
+        }
         List<CardResponseDto> cards = cardsService.getCardsByTeamId(teamId);
         return ResponseEntity.ok(cards);
     }
 
+    @Operation(
+            summary = "Export Cards REST API",
+            description = "Stream all cards, optionally filtered by owner and/or team, as newline-delimited JSON "
+                    + "in ID order. Gzip-compressed when the client accepts it"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "HTTP Status OK, one card per line",
+            content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                    schema = @Schema(implementation = CardResponseDto.class))
+    )
+    @GetMapping(path = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public void exportCards(@RequestParam(required = false) Long ownerId,
+                            @RequestParam(required = false) Long teamId,
+                            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                            HttpServletResponse response) throws IOException {
+        NdjsonResponse<CardRow> export = new NdjsonResponse<>(response, objectMapper.getFactory(), "cards.ndjson",
+                NdjsonResponse.acceptsGzip(acceptEncoding), exportFlushRows,
+                generator -> new CardJsonWriter(generator)::write);
+        cardsService.exportCards(ownerId, teamId, export);
+        export.finish();
+    }
+
+    // Rows are read as projections and written by CardPageHttpMessageConverter without DTOs
     @Override
-    public ResponseEntity<PagingCardResponseDto> getAllCards(Long ownerId, String title, Long teamId, Integer page, Integer size) {
+    public ResponseEntity<PagingCardResponseDto> getAllCards(Long ownerId, String title, Long teamId, Integer page,
+                                                             Integer size, String cursor, String search,
+                                                             Boolean count) {
+        // Cursor mode: keyset pagination without offset scan or count query
+        if (cursor != null) {
+            Window<CardRow> window = cardsService.getFilteredCards(ownerId, title, search, teamId, cursor,
+                    pageSize(size));
+            return ResponseEntity.ok(PageUtils.toCardRowPageDto(window, pageSize(size)));
+        }
+
         Pageable pageable = PageRequest.of(page != null ? page : 0, size != null ? size : 10);
 
+        // Count-free mode: one extra row tells whether a next page exists
+        if (Boolean.FALSE.equals(count)) {
+            Slice<CardRow> cards = cardsService.getFilteredCardsSlice(ownerId, title, search, teamId, pageable);
+            return ResponseEntity.ok(PageUtils.toCardRowPageDto(cards));
+        }
+
         // If filtering parameters are provided, use filtered search
-        if (ownerId != null || (title != null && !title.isEmpty()) || teamId != null) {
-            Page<CardResponseDto> filteredCards = cardsService.getFilteredCards(ownerId, title, teamId, pageable);
-            return ResponseEntity.ok(PageUtils.toPagingCardResponseDto(filteredCards));
+        if (ownerId != null || (title != null && !title.isEmpty()) || (search != null && !search.isEmpty())
+                || teamId != null) {
+            Page<CardRow> filteredCards = cardsService.getFilteredCards(ownerId, title, search, teamId, pageable);
+            return ResponseEntity.ok(PageUtils.toCardRowPageDto(filteredCards));
         }
 
         // Otherwise, get all cards
-        Page<CardResponseDto> cards = cardsService.getAllCards(pageable);
-        return ResponseEntity.ok(PageUtils.toPagingCardResponseDto(cards));
+        Page<CardRow> cards = cardsService.getAllCards(pageable);
+        return ResponseEntity.ok(PageUtils.toCardRowPageDto(cards));
+    }
+
+    private static int pageSize(Integer size) {
+        if (size == null) {
+            return CardConstants.DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(Math.max(size, 1), CardConstants.MAX_PAGE_SIZE);
+    }
+
+    private static ResponseEntity<List<CardResponseDto>> toCursorResponse(Window<CardResponseDto> window) {
+        String nextCursor = PageUtils.nextCursor(window);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null) {
+            response.header(CardConstants.HEADER_NEXT_CURSOR, nextCursor);
+        }
+        return response.body(window.getContent());
     }
 }
@@ -0,0 +1,150 @@
+package teams.teams.controller;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes rows to the servlet response as newline-delimited JSON while they are read, one object
+ * per line, optionally gzip-compressed. Rows are flushed to the client every {@code flushRows}
+ * rows, so the client starts reading with the first batch and nothing is buffered beyond the
+ * generator and compressor buffers.
+ * <p>
+ * Headers are set and the stream opened on the first row, or by {@link #finish()} for an empty
+ * export: an exception thrown before that (a missing team, say) still gets its regular error
+ * response. Once rows have been sent, a failure can only cut the response short.
+ *
+ * @param <T> the row type
+ */
+public class NdjsonResponse<T> implements Consumer<T> {
+
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
+    private final HttpServletResponse response;
+    private final JsonFactory jsonFactory;
+    private final String filename;
+    private final boolean gzip;
+    private final int flushRows;
+    private final Function<JsonGenerator, RowWriter<T>> writerFactory;
+
+    private JsonGenerator generator;
+    private RowWriter<T> writer;
+    private int unflushedRows;
+
+    /**
+     * @param response      the response to write to
+     * @param jsonFactory   creates the generator; the mapper's pretty printer is not applied
+     * @param filename      the file name suggested to the client
+     * @param gzip          whether to compress the body
+     * @param flushRows     the number of rows sent in one flush
+     * @param writerFactory creates the row writer for the generator
+     */
+    public NdjsonResponse(HttpServletResponse response, JsonFactory jsonFactory, String filename, boolean gzip,
+                          int flushRows, Function<JsonGenerator, RowWriter<T>> writerFactory) {
+        this.response = response;
+        this.jsonFactory = jsonFactory;
+        this.filename = filename;
+        this.gzip = gzip;
+        this.flushRows = Math.max(flushRows, 1);
+        this.writerFactory = writerFactory;
+    }
+
+    /**
+     * Tells whether an {@code Accept-Encoding} header allows gzip
+     *
+     * @param acceptEncoding the header value (may be null)
+     * @return true if gzip is listed without {@code q=0}
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (!"gzip".equalsIgnoreCase(parts[0].trim())) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                if (parts[i].trim().matches("q=0(\\.0{0,3})?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Writes one row and its line break
+     *
+     * @param row the row to write
+     * @throws UncheckedIOException if the client went away or the stream failed
+     */
+    @Override
+    public void accept(T row) {
+        try {
+            open();
+            writer.write(row);
+            generator.writeRaw('\n');
+            if (++unflushedRows == flushRows) {
+                generator.flush();
+                unflushedRows = 0;
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Writes what is left, including the gzip trailer, and completes the response
+     *
+     * @throws IOException if the stream failed
+     */
+    public void finish() throws IOException {
+        open();
+        generator.close();
+    }
+
+    private void open() throws IOException {
+        if (generator != null) {
+            return;
+        }
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        OutputStream body = response.getOutputStream();
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            // Sync flush, so every flush sends the rows compressed so far
+            body = new GZIPOutputStream(body, GZIP_BUFFER_SIZE, true);
+        }
+        generator = jsonFactory.createGenerator(body, JsonEncoding.UTF8);
+        // Lines are separated by writeRaw, not by the generator's root value separator (a space)
+        generator.setRootValueSeparator(null);
+        writer = writerFactory.apply(generator);
+    }
+
+    /**
+     * Writes one row as a JSON value
+     *
+     * @param <T> the row type
+     */
+    @FunctionalInterface
+    public interface RowWriter<T> {
+
+        void write(T row) throws IOException;
+    }
+}
@@ -1,5 +1,7 @@
 package teams.teams.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teamup.commons.util.ETagUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
@@ -8,12 +10,15 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -22,9 +27,14 @@ import org.springframework.web.bind.annotation.*;
 import teams.teams.api.TeamsApi;
 import teams.teams.api.model.*;
 import teams.teams.constants.TeamConstants;
+import teams.teams.mapper.TeamMemberJsonWriter;
+import teams.teams.repository.projection.TeamMemberRow;
 import teams.teams.service.ITeamService;
 import teams.teams.util.PageUtils;
 
+import java.io.IOException;
+import java.util.List;
+
 @Tag(
         name = "CRUD REST API for Team Management",
         description = "Operations for managing team members in projects"
@@ -35,13 +45,27 @@ import teams.teams.util.PageUtils;
 public class TeamController implements TeamsApi {
 
     private final ITeamService teamService;
+    private final ObjectMapper objectMapper;
 
     @Value("${build.version}")
     private String buildVersion;
 
+    /**
+     * Artificial latency of the build version endpoint, used to compare platform and virtual threads under load
+     */
+    @Value("${teams.build-version.delay-ms:10000}")
+    private long buildVersionDelayMillis;
+
+    /**
+     * Rows sent per flush by the exports: one flush per batch the driver fetches
+     */
+    @Value("${exports.fetch-size:1000}")
+    private int exportFlushRows;
+
     @Autowired
-    public TeamController(ITeamService teamService) {
+    public TeamController(ITeamService teamService, ObjectMapper objectMapper) {
         this.teamService = teamService;
+        this.objectMapper = objectMapper;
     }
 
     @Operation(
@@ -49,8 +73,12 @@ public class TeamController implements TeamsApi {
             description = "Get the current build version of the service"
     )
     @GetMapping("/build-version")
-    public ResponseEntity<String> getTeamsBuildVersion() throws InterruptedException {
-        Thread.sleep(10000);
+    public ResponseEntity<String> getTeamsBuildVersion() {
+        try {
+            Thread.sleep(buildVersionDelayMillis);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
         return ResponseEntity
                 .status(HttpStatus.OK)
                 .body(buildVersion);
@@ -143,6 +171,62 @@ public class TeamController implements TeamsApi {
         return ResponseEntity.ok(updatedMember);
     }
 
+    @Operation(
+            summary = "Invite to Team in Bulk REST API",
+            description = "Invite up to 1000 users with set-based checks and batched inserts"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK, with the outcome for every user"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Malformed batch, nobody was invited",
+                    content = @Content(
+                            schema = @Schema(implementation = ResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Card not found",
+                    content = @Content(
+                            schema = @Schema(implementation = ResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/{cardId}/invite/batch")
+    public ResponseEntity<TeamMemberBatchResponseDto> inviteToTeamBatch(
+            @PathVariable Long cardId,
+            @Valid @RequestBody TeamMemberBatchInviteDto teamMemberBatchInviteDto) {
+        return ResponseEntity.ok(teamService.inviteToTeamBatch(cardId, teamMemberBatchInviteDto.getUserIds()));
+    }
+
+    @Operation(
+            summary = "Update Member Status in Bulk REST API",
+            description = "Accept or reject the memberships of up to 1000 users with a single update"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK, with the outcome for every user"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Malformed batch, nothing was updated",
+                    content = @Content(
+                            schema = @Schema(implementation = ResponseDto.class)
+                    )
+            )
+    })
+    @PutMapping("/{cardId}/status/batch")
+    public ResponseEntity<TeamMemberBatchResponseDto> updateMemberStatusBatch(
+            @PathVariable Long cardId,
+            @Valid @RequestBody TeamMemberBatchStatusDto teamMemberBatchStatusDto) {
+        return ResponseEntity.ok(teamService.updateMemberStatusBatch(cardId, teamMemberBatchStatusDto.getUserIds(),
+                teamMemberBatchStatusDto.getStatus()));
+    }
+
     @Operation(
             summary = "Remove Team Member REST API",
             description = "Remove a user from a team/project"
@@ -189,8 +273,13 @@ public class TeamController implements TeamsApi {
     public ResponseEntity<PagingTeamMemberResponseDto> getTeamMembers(
             @PathVariable Long cardId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "true") boolean count) {
         Pageable pageable = PageRequest.of(page, size);
+        if (!count) {
+            Slice<TeamMemberResponseDto> teamMembers = teamService.getTeamMembersSlice(cardId, pageable);
+            return ResponseEntity.ok(PageUtils.toPagingTeamMemberResponseDto(teamMembers));
+        }
         Page<TeamMemberResponseDto> teamMembers = teamService.getTeamMembers(cardId, pageable);
         return ResponseEntity.ok(PageUtils.toPagingTeamMemberResponseDto(teamMembers));
     }
@@ -204,9 +293,31 @@ public class TeamController implements TeamsApi {
             description = "HTTP Status OK"
     )
     @GetMapping("/fetch")
-    public ResponseEntity<TeamResponseDto> fetch(@RequestParam Long teamId) {
+    public ResponseEntity<TeamResponseDto> fetch(@RequestParam Long teamId,
+                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String etag = ETagUtils.etag(teamId, teamService.getTeamVersion(teamId));
+            if (ETagUtils.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
         TeamResponseDto teamResponseDto = teamService.fetchTeam(teamId);
-        return ResponseEntity.ok(teamResponseDto);
+        return ResponseEntity.ok()
+                .eTag(ETagUtils.etag(teamId, teamResponseDto.getVersion()))
+                .body(teamResponseDto);
+    }
+
+    @Operation(
+            summary = "Get Teams by Member REST API",
+            description = "Get the teams a user has joined or been invited to"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "HTTP Status OK"
+    )
+    @GetMapping("/fetchByMember")
+    public ResponseEntity<List<TeamResponseDto>> getTeamsByMember(@RequestParam Long userId) {
+        return ResponseEntity.ok(teamService.getTeamsByMember(userId));
     }
 
     @Operation(
@@ -218,9 +329,14 @@ public class TeamController implements TeamsApi {
     public ResponseEntity<PagingTeamResponseDto> listTeams(
             @Parameter(name = "page", description = "Page number (0-indexed)", in = ParameterIn.QUERY) @Valid @RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
             @Parameter(name = "size", description = "Page size", in = ParameterIn.QUERY) @Valid @RequestParam(value = "size", required = false, defaultValue = "10") Integer size,
-            @Parameter(name = "userId", description = "When set, return only teams where this user is a member (my teams)", in = ParameterIn.QUERY) @Valid @RequestParam(value = "userId", required = false) Long userId
+            @Parameter(name = "userId", description = "When set, return only teams where this user is a member (my teams)", in = ParameterIn.QUERY) @Valid @RequestParam(value = "userId", required = false) Long userId,
+            @Parameter(name = "count", description = "When false, totals are not computed and hasNext tells whether another page exists", in = ParameterIn.QUERY) @Valid @RequestParam(value = "count", required = false, defaultValue = "true") Boolean count
     ) {
         Pageable pageable = PageRequest.of(page != null ? page : 0, size != null ? size : 10);
+        if (Boolean.FALSE.equals(count)) {
+            Slice<TeamResponseDto> teamSlice = teamService.listTeamsSlice(pageable, userId);
+            return ResponseEntity.ok(PageUtils.toPagingTeamResponseDto(teamSlice));
+        }
         Page<TeamResponseDto> teamPage = teamService.listTeams(pageable, userId);
         return ResponseEntity.ok(PageUtils.toPagingTeamResponseDto(teamPage));
     }
@@ -234,21 +350,59 @@ public class TeamController implements TeamsApi {
     public ResponseEntity<PagingTeamMemberResponseDto> getTeamMembersByTeamId(
             @PathVariable Long teamId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "true") boolean count) {
         Pageable pageable = PageRequest.of(page, size);
+        if (!count) {
+            Slice<TeamMemberResponseDto> members = teamService.getTeamMembersByTeamIdSlice(teamId, pageable);
+            return ResponseEntity.ok(PageUtils.toPagingTeamMemberResponseDto(members));
+        }
         Page<TeamMemberResponseDto> members = teamService.getTeamMembersByTeamId(teamId, pageable);
         return ResponseEntity.ok(PageUtils.toPagingTeamMemberResponseDto(members));
     }
 
+    @Operation(
+            summary = "Export Team Members REST API",
+            description = "Stream all members of a team as newline-delimited JSON in ID order. "
+                    + "Gzip-compressed when the client accepts it"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK, one member per line",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = TeamMemberResponseDto.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Team not found",
+                    content = @Content(
+                            schema = @Schema(implementation = ResponseDto.class)
+                    )
+            )
+    })
+    @GetMapping(path = "/{teamId}/members/export",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public void exportTeamMembers(@PathVariable Long teamId,
+                                  @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                  HttpServletResponse response) throws IOException {
+        NdjsonResponse<TeamMemberRow> export = new NdjsonResponse<>(response, objectMapper.getFactory(),
+                "team-" + teamId + "-members.ndjson", NdjsonResponse.acceptsGzip(acceptEncoding), exportFlushRows,
+                generator -> new TeamMemberJsonWriter(generator)::write);
+        teamService.exportTeamMembers(teamId, export);
+        export.finish();
+    }
+
     @Override
-    public ResponseEntity<PagingTeamMemberResponseDto> getTeamMembers(Long cardId, Integer page, Integer size) {
-        Pageable pageable = PageRequest.of(page != null ? page : 0, size != null ? size : 10);
-        Page<TeamMemberResponseDto> teamMembers = teamService.getTeamMembers(cardId, pageable);
-        return ResponseEntity.ok(PageUtils.toPagingTeamMemberResponseDto(teamMembers));
+    public ResponseEntity<PagingTeamMemberResponseDto> getTeamMembers(Long cardId, Integer page, Integer size,
+                                                                      Boolean count) {
+        return getTeamMembers(cardId, page != null ? page : 0, size != null ? size : 10, !Boolean.FALSE.equals(count));
     }
 
     @Override
-    public ResponseEntity<PagingTeamMemberResponseDto> getTeamMembersByTeamId(Long teamId, Integer page, Integer size) {
-        return null;
+    public ResponseEntity<PagingTeamMemberResponseDto> getTeamMembersByTeamId(Long teamId, Integer page, Integer size,
+                                                                              Boolean count) {
+        return getTeamMembersByTeamId(teamId, page != null ? page : 0, size != null ? size : 10,
+                !Boolean.FALSE.equals(count));
     }
 }
\ No newline at end of file
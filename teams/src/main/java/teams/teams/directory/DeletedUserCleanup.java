@@ -0,0 +1,156 @@
+package teams.teams.directory;
+
+import com.teamup.commons.cache.EntityVersionMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+import teams.teams.cache.TeamMembershipCache;
+import teams.teams.constants.CardConstants;
+import teams.teams.constants.TeamConstants;
+import teams.teams.constants.TeamEventConstants;
+import teams.teams.dto.MemberEventDto;
+import teams.teams.outbox.TeamEventOutbox;
+import teams.teams.repository.UserCleanupRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Removes the memberships of deleted users and hands their cards to {@code users.cleanup.card-owner-id}.
+ * The owner has no default, since it must be an existing user: without it the cleanup and its
+ * listener are not created, and deleted users are cleaned up once it is set, from the group offsets.
+ * <p>
+ * Rows are processed in chunks of {@code users.cleanup.chunk-size}, each locked, changed and
+ * committed in its own transaction, so a user with many rows never holds locks for long and an
+ * interrupted run keeps what it committed. Every statement selects by user ID, so running the
+ * cleanup again for the same users finds nothing left to do.
+ */
+@Component
+@ConditionalOnProperty(name = DeletedUserCleanup.CARD_OWNER_PROPERTY)
+public class DeletedUserCleanup {
+
+    public static final String CARD_OWNER_PROPERTY = "users.cleanup.card-owner-id";
+
+    private static final Logger log = LoggerFactory.getLogger(DeletedUserCleanup.class);
+
+    private final UserCleanupRepository userCleanupRepository;
+    private final TeamEventOutbox teamEventOutbox;
+    private final TeamMembershipCache teamMembershipCache;
+    private final EntityVersionMap entityVersionMap;
+    private final TransactionOperations transactionOperations;
+    private final int chunkSize;
+    private final long cardOwnerId;
+
+    private final Counter users;
+    private final Counter membershipsDeleted;
+    private final Counter cardsReassigned;
+    private final Timer delay;
+    private final AtomicInteger pending = new AtomicInteger();
+
+    public DeletedUserCleanup(UserCleanupRepository userCleanupRepository, TeamEventOutbox teamEventOutbox,
+                              TeamMembershipCache teamMembershipCache, EntityVersionMap entityVersionMap,
+                              TransactionOperations transactionOperations, MeterRegistry meterRegistry,
+                              @Value("${users.cleanup.chunk-size:500}") int chunkSize,
+                              @Value("${users.cleanup.card-owner-id}") long cardOwnerId) {
+        if (cardOwnerId <= 0) {
+            throw new IllegalArgumentException("users.cleanup.card-owner-id must be the ID of an existing user, was "
+                    + cardOwnerId);
+        }
+        this.userCleanupRepository = userCleanupRepository;
+        this.teamEventOutbox = teamEventOutbox;
+        this.teamMembershipCache = teamMembershipCache;
+        this.entityVersionMap = entityVersionMap;
+        this.transactionOperations = transactionOperations;
+        this.chunkSize = chunkSize;
+        this.cardOwnerId = cardOwnerId;
+        this.users = Counter.builder("users.cleanup.users")
+                .description("Deleted users whose memberships and cards were cleaned up")
+                .register(meterRegistry);
+        this.membershipsDeleted = Counter.builder("users.cleanup.rows").tags("table", "team_member", "action", "deleted")
+                .description("Rows deleted or reassigned by the deleted user cleanup")
+                .register(meterRegistry);
+        this.cardsReassigned = Counter.builder("users.cleanup.rows").tags("table", "cards", "action", "reassigned")
+                .description("Rows deleted or reassigned by the deleted user cleanup")
+                .register(meterRegistry);
+        this.delay = Timer.builder("users.cleanup.delay")
+                .description("Time from the user deletion to the end of its cleanup")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("users.cleanup.pending", pending, AtomicInteger::get)
+                .description("Deleted users of the batch in progress not cleaned up yet")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Cleans up after a batch of deleted users
+     *
+     * @param userIds   the IDs of the deleted users
+     * @param deletedAt when the oldest of the deletions was published (may be null)
+     */
+    public void cleanUp(Collection<Long> userIds, Instant deletedAt) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = Set.copyOf(userIds);
+        pending.set(ids.size());
+        long memberships = 0;
+        long cards = 0;
+        try {
+            Integer chunk;
+            do {
+                chunk = transactionOperations.execute(status -> deleteMemberships(ids));
+                memberships += chunk;
+                membershipsDeleted.increment(chunk);
+            } while (chunk == chunkSize);
+            do {
+                chunk = transactionOperations.execute(status -> reassignCards(ids));
+                cards += chunk;
+                cardsReassigned.increment(chunk);
+            } while (chunk == chunkSize);
+        } finally {
+            pending.set(0);
+        }
+        users.increment(ids.size());
+        if (deletedAt != null) {
+            delay.record(Duration.between(deletedAt, Instant.now()));
+        }
+        log.info("Cleaned up after {} deleted users: {} memberships removed, {} cards reassigned to {}",
+                ids.size(), memberships, cards, cardOwnerId);
+    }
+
+    private int deleteMemberships(Set<Long> userIds) {
+        List<MemberEventDto> members = userCleanupRepository.lockMemberships(userIds, chunkSize);
+        if (members.isEmpty()) {
+            return 0;
+        }
+        userCleanupRepository.deleteMemberships(members.stream().map(MemberEventDto::memberId).toList());
+        Set<Long> teamIds = members.stream().map(MemberEventDto::teamId).collect(Collectors.toSet());
+        userCleanupRepository.incrementTeamVersions(teamIds);
+        teamIds.forEach(teamId -> entityVersionMap.evict(TeamConstants.VERSION_TYPE, teamId));
+        members.stream().map(MemberEventDto::userId).distinct().forEach(teamMembershipCache::evict);
+        teamEventOutbox.addAll(TeamEventConstants.MEMBER_REMOVED, members, MemberEventDto::teamId);
+        return members.size();
+    }
+
+    private int reassignCards(Set<Long> userIds) {
+        List<Long> cardIds = userCleanupRepository.lockOwnedCards(userIds, chunkSize);
+        if (cardIds.isEmpty()) {
+            return 0;
+        }
+        userCleanupRepository.reassignCards(cardIds, cardOwnerId);
+        cardIds.forEach(cardId -> entityVersionMap.evict(CardConstants.VERSION_TYPE, cardId));
+        return cardIds.size();
+    }
+}
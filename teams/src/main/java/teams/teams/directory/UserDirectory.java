@@ -0,0 +1,154 @@
+package teams.teams.directory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import teams.teams.constants.UserEventConstants;
+import teams.teams.dto.UserMessageDto;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Local read model of the users known to the users service, keyed by user ID.
+ * <p>
+ * It is fed by the compacted {@code user-events} topic, which the consumer replays from the
+ * earliest offset on every start. The directory only answers lookups once it has caught up with
+ * the end offsets of the topic; until then callers have to ask the users service.
+ */
+@Component
+public class UserDirectory {
+
+    private static final Logger log = LoggerFactory.getLogger(UserDirectory.class);
+
+    private final Map<Long, DirectoryUser> users = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> consumedOffsets = new ConcurrentHashMap<>();
+
+    private final String topic;
+    private final long adminTimeoutMillis;
+    private final AdminClient adminClient;
+
+    private volatile boolean ready;
+    private volatile long lag = -1;
+
+    public UserDirectory(MeterRegistry meterRegistry,
+                         @Value("${spring.cloud.stream.bindings.userEvents-in-0.destination:user-events}") String topic,
+                         @Value("${spring.cloud.stream.kafka.binder.brokers:localhost:9092}") String bootstrapServers,
+                         @Value("${users.directory.admin-timeout-ms:5000}") long adminTimeoutMillis) {
+        this.topic = topic;
+        this.adminTimeoutMillis = adminTimeoutMillis;
+        this.adminClient = AdminClient.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers));
+        Gauge.builder("users.directory.size", users, Map::size)
+                .description("Users held in the local user directory")
+                .register(meterRegistry);
+        Gauge.builder("users.directory.lag", this, directory -> directory.lag)
+                .description("User events not yet applied to the directory, -1 until first measured")
+                .register(meterRegistry);
+        Gauge.builder("users.directory.ready", this, directory -> directory.ready ? 1 : 0)
+                .description("1 once the directory has caught up with the user events topic")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Applies a user event consumed from the topic
+     *
+     * @param eventType CREATED, UPDATED or DELETED
+     * @param user      the user carried by the event
+     * @param partition the partition the event was read from
+     * @param offset    the offset of the event
+     */
+    public void apply(String eventType, UserMessageDto user, Integer partition, Long offset) {
+        if (UserEventConstants.EVENT_DELETED.equals(eventType)) {
+            users.remove(user.id());
+        } else {
+            users.put(user.id(), new DirectoryUser(user.firstname(), user.lastname(), user.email()));
+        }
+        if (partition != null && offset != null) {
+            consumedOffsets.merge(partition, offset, Math::max);
+        }
+    }
+
+    /**
+     * Checks whether the user exists according to the replicated events
+     *
+     * @param userId the ID of the user
+     * @return true or false once the directory is bootstrapped, empty while it is still replaying the topic
+     */
+    public Optional<Boolean> contains(Long userId) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        return Optional.of(users.containsKey(userId));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Compares the consumed offsets with the end offsets of the topic. The directory becomes
+     * ready the first time it has no lag.
+     */
+    @Scheduled(fixedDelayString = "${users.directory.lag-check-ms:5000}")
+    public void refreshLag() {
+        try {
+            Map<TopicPartition, OffsetSpec> request = new HashMap<>();
+            adminClient.describeTopics(List.of(topic)).allTopicNames()
+                    .get(adminTimeoutMillis, TimeUnit.MILLISECONDS)
+                    .get(topic).partitions()
+                    .forEach(partition -> request.put(new TopicPartition(topic, partition.partition()), OffsetSpec.latest()));
+            Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> endOffsets = adminClient.listOffsets(request).all()
+                    .get(adminTimeoutMillis, TimeUnit.MILLISECONDS);
+            long total = 0;
+            for (Map.Entry<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> entry : endOffsets.entrySet()) {
+                long consumed = consumedOffsets.getOrDefault(entry.getKey().partition(), -1L);
+                total += Math.max(0, entry.getValue().offset() - consumed - 1);
+            }
+            updateLag(total);
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof UnknownTopicOrPartitionException) {
+                // Nothing was ever published, so there is nothing to replay
+                updateLag(0);
+            } else {
+                log.warn("Could not read end offsets of {}: {}", topic, exception.getCause().getMessage());
+            }
+        } catch (TimeoutException exception) {
+            log.warn("Timed out reading end offsets of {}", topic);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void updateLag(long total) {
+        lag = total;
+        if (!ready && total == 0) {
+            ready = true;
+            log.info("User directory caught up with {} ({} users)", topic, users.size());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        adminClient.close();
+    }
+
+    private record DirectoryUser(String firstName, String lastName, String email) {
+    }
+}
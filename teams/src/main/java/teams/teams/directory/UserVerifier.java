@@ -0,0 +1,58 @@
+package teams.teams.directory;
+
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+import teams.teams.exception.ResourceNotFoundException;
+import teams.teams.service.client.CoalescingUsersClient;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Checks that users exist before they are referenced by cards or memberships.
+ * <p>
+ * Known users are confirmed by the local {@link UserDirectory} without a network hop. The users
+ * service is only asked while the directory is still bootstrapping, or for an ID the directory
+ * does not hold (for example a user created before events were published, or one whose event
+ * has not been consumed yet).
+ */
+@Component
+@AllArgsConstructor
+public class UserVerifier {
+
+    private final UserDirectory userDirectory;
+    private final CoalescingUsersClient usersClient;
+
+    /**
+     * @param userId the ID of the user
+     * @throws ResourceNotFoundException if the user does not exist
+     */
+    public void requireUser(Long userId) {
+        if (userDirectory.contains(userId).orElse(false)) {
+            return;
+        }
+        usersClient.fetchUser(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId.toString()));
+    }
+
+    /**
+     * Set-based variant of {@link #requireUser(Long)}: users the directory does not confirm are
+     * checked with as few batch calls as possible
+     *
+     * @param userIds the IDs of the users
+     * @return the IDs that do not belong to any user
+     */
+    public Set<Long> findUnknownUsers(Collection<Long> userIds) {
+        Set<Long> unknown = new HashSet<>();
+        for (Long userId : userIds) {
+            if (!userDirectory.contains(userId).orElse(false)) {
+                unknown.add(userId);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            usersClient.fetchUsers(unknown).forEach(user -> unknown.remove(user.getId()));
+        }
+        return unknown;
+    }
+}
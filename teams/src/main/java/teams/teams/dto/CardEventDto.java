@@ -0,0 +1,4 @@
+package teams.teams.dto;
+
+public record CardEventDto(Long cardId, Long teamId, Long ownerId, String title) {
+}
@@ -0,0 +1,36 @@
+package teams.teams.dto;
+
+import teams.teams.api.model.CardResponseDto;
+import teams.teams.api.model.PagingCardResponseDto;
+import teams.teams.mapper.CardMapper;
+import teams.teams.repository.projection.CardRow;
+
+import java.util.List;
+
+/**
+ * A page of cards that still holds the rows it was read as. {@code CardPageHttpMessageConverter}
+ * writes the rows straight to the response; no {@link CardResponseDto} is created for them.
+ * <p>
+ * {@link #getContent()} maps the rows on demand, so code that reads the page as a plain
+ * {@link PagingCardResponseDto} sees the same content.
+ */
+public class CardRowPageDto extends PagingCardResponseDto {
+
+    private final List<CardRow> rows;
+
+    public CardRowPageDto(List<CardRow> rows) {
+        this.rows = rows;
+    }
+
+    /**
+     * @return the rows of the page, in listing order
+     */
+    public List<CardRow> rows() {
+        return rows;
+    }
+
+    @Override
+    public List<CardResponseDto> getContent() {
+        return rows.stream().map(CardMapper::mapToCardResponseDto).toList();
+    }
+}
@@ -0,0 +1,4 @@
+package teams.teams.dto;
+
+public record MemberEventDto(Long memberId, Long teamId, Long cardId, Long userId, String status) {
+}
@@ -5,8 +5,18 @@ import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import teams.teams.constants.CardConstants;
 
 @Entity(name = "cards")
+@Table(name = "cards", indexes = {
+        @Index(name = "idx_cards_updated_at_id", columnList = "updated_at, id"),
+        @Index(name = "idx_cards_owner_updated_at_id", columnList = "owner_id, updated_at, id"),
+        @Index(name = "idx_cards_team_updated_at_id", columnList = "team_id, updated_at, id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CardConstants.CACHE_REGION)
 @Getter
 @Setter
 @ToString
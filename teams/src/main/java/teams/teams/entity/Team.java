@@ -3,10 +3,15 @@ package teams.teams.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import teams.teams.constants.TeamConstants;
 
 import java.util.List;
 
 @Entity(name = "team")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = TeamConstants.CACHE_REGION)
 @Getter
 @Setter
 @ToString
@@ -21,12 +26,17 @@ public class Team extends BaseEntity {
     @Column(name = "description")
     private String description;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    /**
+     * Loaded on demand; {@code TeamRepository.findWithMembersById} fetches it in the same query
+     * when a single team is returned with its members.
+     */
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "team_members",
             joinColumns = @JoinColumn(name = "team_id"),
             inverseJoinColumns = @JoinColumn(name = "team_member_id")
     )
+    @ToString.Exclude
     private List<TeamMember> teamMembers;
 
     @OneToMany(mappedBy = "team", cascade = CascadeType.ALL, orphanRemoval = true)
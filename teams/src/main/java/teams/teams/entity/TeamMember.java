@@ -8,6 +8,15 @@ import teams.teams.constants.TeamConstants;
 import java.time.LocalDateTime;
 
 @Entity(name = "team_member")
+@Table(name = "team_member", indexes = {
+        // Covers the "my teams" lookup: team IDs of a user filtered by status
+        @Index(name = "idx_team_member_user_team_status", columnList = "user_id, team_id, status"),
+        // Members of a team and a user's membership in a team
+        @Index(name = "idx_team_member_team_user", columnList = "team_id, user_id")
+}, uniqueConstraints = {
+        // One membership per user and card; joins and invites rely on it instead of a pre-read
+        @UniqueConstraint(name = TeamConstants.UK_MEMBER_CARD_USER, columnNames = {"card_id", "user_id"})
+})
 @Getter
 @Setter
 @ToString
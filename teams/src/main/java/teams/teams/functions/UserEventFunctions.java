@@ -0,0 +1,63 @@
+package teams.teams.functions;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import teams.teams.constants.UserEventConstants;
+import teams.teams.directory.DeletedUserCleanup;
+import teams.teams.directory.UserDirectory;
+import teams.teams.dto.UserMessageDto;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+@Configuration
+public class UserEventFunctions {
+
+    @Bean
+    public Consumer<Message<UserMessageDto>> userEvents(UserDirectory userDirectory) {
+        return message -> {
+            MessageHeaders headers = message.getHeaders();
+            userDirectory.apply(headers.get(UserEventConstants.EVENT_TYPE_HEADER, String.class),
+                    message.getPayload(),
+                    headers.get(KafkaHeaders.RECEIVED_PARTITION, Integer.class),
+                    headers.get(KafkaHeaders.OFFSET, Long.class));
+        };
+    }
+
+    /**
+     * Batch consumer of the user events in the {@code teams} consumer group: one instance cleans up
+     * after the deleted users of each polled batch. A failed batch is redelivered, which is safe
+     * because the cleanup only finds what is left. Not created, so the binding is skipped and the
+     * group keeps its offsets, until {@code users.cleanup.card-owner-id} is set.
+     */
+    @Bean
+    @ConditionalOnProperty(name = DeletedUserCleanup.CARD_OWNER_PROPERTY)
+    @SuppressWarnings("unchecked")
+    public Consumer<Message<List<UserMessageDto>>> userDeletions(DeletedUserCleanup deletedUserCleanup) {
+        return message -> {
+            List<UserMessageDto> users = message.getPayload();
+            List<Map<String, Object>> headers = message.getHeaders().get(KafkaHeaders.BATCH_CONVERTED_HEADERS, List.class);
+            List<Long> timestamps = message.getHeaders().get(KafkaHeaders.RECEIVED_TIMESTAMP, List.class);
+            List<Long> deletedIds = new ArrayList<>();
+            Long deletedAt = null;
+            for (int i = 0; i < users.size(); i++) {
+                if (!UserEventConstants.EVENT_DELETED.equals(headers.get(i).get(UserEventConstants.EVENT_TYPE_HEADER))) {
+                    continue;
+                }
+                deletedIds.add(users.get(i).id());
+                if (timestamps != null && (deletedAt == null || timestamps.get(i) < deletedAt)) {
+                    deletedAt = timestamps.get(i);
+                }
+            }
+            deletedUserCleanup.cleanUp(deletedIds, deletedAt == null ? null : Instant.ofEpochMilli(deletedAt));
+        };
+    }
+
+}
@@ -0,0 +1,92 @@
+package teams.teams.mapper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import teams.teams.dto.CardRowPageDto;
+import teams.teams.repository.projection.CardRow;
+
+import java.io.IOException;
+
+/**
+ * Writes a page of card rows as a {@code PagingCardResponseDto} document, field by field, to a
+ * {@link JsonGenerator}.
+ * <p>
+ * The output is the one Jackson produces for the generated DTOs, in the same field order; the
+ * poster URL is written as the stored string. Create one writer per response.
+ */
+public class CardJsonWriter extends JsonRowWriter {
+
+    private static final SerializableString TOTAL_ELEMENTS = new SerializedString("totalElements");
+    private static final SerializableString TOTAL_PAGES = new SerializedString("totalPages");
+    private static final SerializableString NUMBER = new SerializedString("number");
+    private static final SerializableString SIZE = new SerializedString("size");
+    private static final SerializableString HAS_NEXT = new SerializedString("hasNext");
+    private static final SerializableString CONTENT = new SerializedString("content");
+    private static final SerializableString NEXT_CURSOR = new SerializedString("nextCursor");
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString VERSION = new SerializedString("version");
+    private static final SerializableString TITLE = new SerializedString("title");
+    private static final SerializableString DESCRIPTION = new SerializedString("description");
+    private static final SerializableString POSTER_URL = new SerializedString("posterUrl");
+    private static final SerializableString OWNER_ID = new SerializedString("ownerId");
+    private static final SerializableString TEAM_ID = new SerializedString("teamId");
+    private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializableString CREATED_BY = new SerializedString("createdBy");
+    private static final SerializableString UPDATED_AT = new SerializedString("updatedAt");
+    private static final SerializableString UPDATED_BY = new SerializedString("updatedBy");
+
+    public CardJsonWriter(JsonGenerator generator) {
+        super(generator);
+    }
+
+    /**
+     * Writes the page and its rows
+     *
+     * @param page the page to write
+     * @throws IOException if the generator cannot write
+     */
+    public void write(CardRowPageDto page) throws IOException {
+        generator.writeStartObject();
+        writeNumber(TOTAL_ELEMENTS, page.getTotalElements());
+        writeNumber(TOTAL_PAGES, page.getTotalPages());
+        writeNumber(NUMBER, page.getNumber());
+        writeNumber(SIZE, page.getSize());
+        generator.writeFieldName(HAS_NEXT);
+        if (page.getHasNext() != null) {
+            generator.writeBoolean(page.getHasNext());
+        } else {
+            generator.writeNull();
+        }
+        generator.writeFieldName(CONTENT);
+        generator.writeStartArray();
+        for (CardRow row : page.rows()) {
+            write(row);
+        }
+        generator.writeEndArray();
+        writeString(NEXT_CURSOR, page.getNextCursor());
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes one card as a {@code CardResponseDto} object
+     *
+     * @param row the card to write
+     * @throws IOException if the generator cannot write
+     */
+    public void write(CardRow row) throws IOException {
+        generator.writeStartObject();
+        writeNumber(ID, row.id());
+        writeNumber(VERSION, row.version());
+        writeString(TITLE, row.title());
+        writeString(DESCRIPTION, row.description());
+        writeString(POSTER_URL, row.posterUrl());
+        writeNumber(OWNER_ID, row.ownerId());
+        writeNumber(TEAM_ID, row.teamId());
+        writeTimestamp(CREATED_AT, row.createdAt());
+        writeString(CREATED_BY, row.createdBy());
+        writeTimestamp(UPDATED_AT, row.updatedAt());
+        writeString(UPDATED_BY, row.updatedBy());
+        generator.writeEndObject();
+    }
+}
@@ -1,13 +1,21 @@
 package teams.teams.mapper;
 
+import teams.teams.api.model.CardBatchItemResultDto;
+import teams.teams.api.model.CardBatchResponseDto;
+import teams.teams.api.model.CardBatchUpdateDto;
 import teams.teams.api.model.CardRequestDto;
 import teams.teams.api.model.CardResponseDto;
+import teams.teams.constants.CardConstants;
+import teams.teams.dto.CardEventDto;
 import teams.teams.entity.Card;
 import teams.teams.entity.Team;
+import teams.teams.repository.projection.CardRow;
 
 import java.net.URI;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -27,9 +35,10 @@ public class CardMapper {
     public static CardResponseDto mapToCardResponseDto(Card card) {
         CardResponseDto responseDto = new CardResponseDto();
         responseDto.setId(card.getId());
+        responseDto.setVersion(card.getVersion());
         responseDto.setTitle(card.getTitle());
         responseDto.setDescription(card.getDescription());
-        responseDto.setPosterUrl(URI.create(card.getPosterUrl()));
+        responseDto.setPosterUrl(card.getPosterUrl() != null ? URI.create(card.getPosterUrl()) : null);
         responseDto.setOwnerId(card.getOwnerId());
         responseDto.setTeamId(card.getTeam().getId());
         responseDto.setCreatedAt(card.getCreatedAt() != null ? card.getCreatedAt().atZone(ZoneId.systemDefault()).toOffsetDateTime() : null);
@@ -39,6 +48,28 @@ public class CardMapper {
         return responseDto;
     }
 
+    /**
+     * Maps a listing row to CardResponseDto
+     *
+     * @param row the card columns read by a listing
+     * @return CardResponseDto with mapped values
+     */
+    public static CardResponseDto mapToCardResponseDto(CardRow row) {
+        CardResponseDto responseDto = new CardResponseDto();
+        responseDto.setId(row.id());
+        responseDto.setVersion(row.version());
+        responseDto.setTitle(row.title());
+        responseDto.setDescription(row.description());
+        responseDto.setPosterUrl(row.posterUrl() != null ? URI.create(row.posterUrl()) : null);
+        responseDto.setOwnerId(row.ownerId());
+        responseDto.setTeamId(row.teamId());
+        responseDto.setCreatedAt(row.createdAt() != null ? row.createdAt().atZone(ZoneId.systemDefault()).toOffsetDateTime() : null);
+        responseDto.setCreatedBy(row.createdBy());
+        responseDto.setUpdatedAt(row.updatedAt() != null ? row.updatedAt().atZone(ZoneId.systemDefault()).toOffsetDateTime() : null);
+        responseDto.setUpdatedBy(row.updatedBy());
+        return responseDto;
+    }
+
     /**
      * Maps CardRequestDto to Card entity
      *
@@ -49,10 +80,89 @@ public class CardMapper {
     public static Card mapToCard(CardRequestDto requestDto, Card card, Team team) {
         card.setTitle(requestDto.getTitle());
         card.setDescription(requestDto.getDescription());
-        card.setPosterUrl(requestDto.getPosterUrl().toString());
+        card.setPosterUrl(requestDto.getPosterUrl() != null ? requestDto.getPosterUrl().toString() : null);
         card.setOwnerId(requestDto.getOwnerId());
         card.setTeam(team);
         card.setUpdatedAt(OffsetDateTime.now(ZoneId.systemDefault()).toLocalDateTime());
         return card;
     }
+
+    /**
+     * Maps an item of a bulk update to a detached Card
+     *
+     * @param updateDto the new content of the card
+     * @param card      Card entity to update, with its ID, version and creation audit set
+     * @param team      the team of the card
+     * @return Card entity with mapped values
+     */
+    public static Card mapToCard(CardBatchUpdateDto updateDto, Card card, Team team) {
+        card.setTitle(updateDto.getTitle());
+        card.setDescription(updateDto.getDescription());
+        card.setPosterUrl(updateDto.getPosterUrl() != null ? updateDto.getPosterUrl().toString() : null);
+        card.setOwnerId(updateDto.getOwnerId());
+        card.setTeam(team);
+        return card;
+    }
+
+    /**
+     * Maps a card written by a bulk request to the result of its item
+     *
+     * @param index  position of the item in the request
+     * @param card   the created or updated card
+     * @param status CREATED or UPDATED
+     * @return the item result
+     */
+    public static CardBatchItemResultDto mapToCardBatchItemResultDto(int index, Card card, String status) {
+        CardBatchItemResultDto resultDto = new CardBatchItemResultDto();
+        resultDto.setIndex(index);
+        resultDto.setId(card.getId());
+        resultDto.setVersion(card.getVersion());
+        resultDto.setStatus(status);
+        return resultDto;
+    }
+
+    /**
+     * Builds the result of a bulk request item that was skipped
+     *
+     * @param index   position of the item in the request
+     * @param id      the ID of the card, null for a card that was to be created
+     * @param message why the item failed
+     * @return the item result
+     */
+    public static CardBatchItemResultDto failedCardBatchItem(int index, Long id, String message) {
+        CardBatchItemResultDto resultDto = new CardBatchItemResultDto();
+        resultDto.setIndex(index);
+        resultDto.setId(id);
+        resultDto.setStatus(CardConstants.BATCH_FAILED);
+        resultDto.setMessage(message);
+        return resultDto;
+    }
+
+    /**
+     * Collects the item results of a bulk request, ordered by index
+     *
+     * @param results the result of every item
+     * @return the bulk response
+     */
+    public static CardBatchResponseDto mapToCardBatchResponseDto(List<CardBatchItemResultDto> results) {
+        List<CardBatchItemResultDto> ordered = results.stream()
+                .sorted(Comparator.comparing(CardBatchItemResultDto::getIndex))
+                .toList();
+        int failed = (int) ordered.stream().filter(result -> CardConstants.BATCH_FAILED.equals(result.getStatus())).count();
+        CardBatchResponseDto responseDto = new CardBatchResponseDto();
+        responseDto.setSucceeded(ordered.size() - failed);
+        responseDto.setFailed(failed);
+        responseDto.setResults(new ArrayList<>(ordered));
+        return responseDto;
+    }
+
+    /**
+     * Maps a card to the payload of its outbox event
+     *
+     * @param card the card, with its ID and team set
+     * @return the event payload
+     */
+    public static CardEventDto mapToCardEventDto(Card card) {
+        return new CardEventDto(card.getId(), card.getTeam().getId(), card.getOwnerId(), card.getTitle());
+    }
 }
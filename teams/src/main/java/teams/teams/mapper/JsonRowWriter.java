@@ -0,0 +1,120 @@
+package teams.teams.mapper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneRules;
+
+/**
+ * Base of the writers that put projection rows on a {@link JsonGenerator} field by field, in the
+ * form Jackson gives the generated DTOs: nulls written, timestamps as ISO-8601 with the offset of
+ * the system zone. Field names are expected pre-encoded and timestamps are formatted into a reused
+ * buffer, so writing a row allocates nothing beyond what the generator buffers.
+ */
+public abstract class JsonRowWriter {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    protected final JsonGenerator generator;
+    private final ZoneRules rules = ZONE.getRules();
+    private final ZoneOffset fixedOffset = rules.isFixedOffset() ? rules.getOffset(Instant.EPOCH) : null;
+    // yyyy-MM-ddTHH:mm:ss.SSSSSSSSS+HH:MM:SS
+    private final char[] timestamp = new char[38];
+
+    protected JsonRowWriter(JsonGenerator generator) {
+        this.generator = generator;
+    }
+
+    protected void writeNumber(SerializableString name, Long value) throws IOException {
+        generator.writeFieldName(name);
+        if (value != null) {
+            generator.writeNumber(value);
+        } else {
+            generator.writeNull();
+        }
+    }
+
+    protected void writeNumber(SerializableString name, Integer value) throws IOException {
+        generator.writeFieldName(name);
+        if (value != null) {
+            generator.writeNumber(value);
+        } else {
+            generator.writeNull();
+        }
+    }
+
+    protected void writeString(SerializableString name, String value) throws IOException {
+        generator.writeFieldName(name);
+        if (value != null) {
+            generator.writeString(value);
+        } else {
+            generator.writeNull();
+        }
+    }
+
+    /**
+     * Writes the timestamp as {@link DateTimeFormatter#ISO_OFFSET_DATE_TIME} would format it at the
+     * offset of the system zone, without creating an {@code OffsetDateTime} or a string
+     */
+    protected void writeTimestamp(SerializableString name, LocalDateTime value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+            return;
+        }
+        ZoneOffset offset = fixedOffset != null ? fixedOffset : rules.getOffset(value);
+        int year = value.getYear();
+        if (year < 0 || year > 9999 || (fixedOffset == null && !rules.isValidOffset(value, offset))) {
+            // Signed or longer years and local times inside a daylight saving gap are rare enough
+            // to leave to the formatter
+            generator.writeString(value.atZone(ZONE).toOffsetDateTime().format(DateTimeFormatter.ISO_OFFSET_DATE_TIME));
+            return;
+        }
+        int length = digits(year, 4, 0);
+        timestamp[length++] = '-';
+        length = digits(value.getMonthValue(), 2, length);
+        timestamp[length++] = '-';
+        length = digits(value.getDayOfMonth(), 2, length);
+        timestamp[length++] = 'T';
+        length = digits(value.getHour(), 2, length);
+        timestamp[length++] = ':';
+        length = digits(value.getMinute(), 2, length);
+        timestamp[length++] = ':';
+        length = digits(value.getSecond(), 2, length);
+        int nano = value.getNano();
+        if (nano != 0) {
+            // Fraction without trailing zeros, as the ISO formatter prints it
+            int width = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                width--;
+            }
+            timestamp[length++] = '.';
+            length = digits(nano, width, length);
+        }
+        String offsetId = offset.getId();
+        offsetId.getChars(0, offsetId.length(), timestamp, length);
+        length += offsetId.length();
+        generator.writeString(timestamp, 0, length);
+    }
+
+    /**
+     * Writes value zero-padded to width digits at position start of the buffer
+     *
+     * @return the position after the last digit
+     */
+    private int digits(int value, int width, int start) {
+        int end = start + width;
+        for (int i = end - 1; i >= start; i--) {
+            timestamp[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+}
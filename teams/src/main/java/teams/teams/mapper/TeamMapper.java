@@ -1,15 +1,21 @@
 package teams.teams.mapper;
 
+import teams.teams.api.model.TeamMemberBatchItemResultDto;
+import teams.teams.api.model.TeamMemberBatchResponseDto;
 import teams.teams.api.model.TeamMemberRequestDto;
 import teams.teams.api.model.TeamMemberResponseDto;
 import teams.teams.api.model.TeamResponseDto;
+import teams.teams.constants.TeamConstants;
+import teams.teams.dto.MemberEventDto;
 import teams.teams.entity.Card;
 import teams.teams.entity.Team;
 import teams.teams.entity.TeamMember;
 
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.time.OffsetDateTime;
+import java.util.List;
 
 public class TeamMapper {
 
@@ -49,6 +55,7 @@ public class TeamMapper {
     public static TeamResponseDto mapToTeamResponseDto(Team team) {
         TeamResponseDto responseDto = new TeamResponseDto();
         responseDto.setId(team.getId());
+        responseDto.setVersion(team.getVersion());
         responseDto.setName(team.getName());
         responseDto.setDescription(team.getDescription());
         responseDto.setTeamMembers(team.getTeamMembers().stream().map(TeamMapper::mapToTeamMemberResponseDto).toList());
@@ -61,10 +68,69 @@ public class TeamMapper {
     public static TeamResponseDto mapToTeamResponseDtoSummary(Team team) {
         TeamResponseDto responseDto = new TeamResponseDto();
         responseDto.setId(team.getId());
+        responseDto.setVersion(team.getVersion());
         responseDto.setName(team.getName());
         responseDto.setDescription(team.getDescription());
         responseDto.setTeamMembers(Collections.emptyList());
         return responseDto;
     }
 
-}
\ No newline at end of file
+    /**
+     * Builds the result of a user whose membership was written by a bulk request
+     *
+     * @param userId the ID of the user
+     * @param id     the ID of the membership
+     * @param status the status of the membership after the request
+     * @return the item result
+     */
+    public static TeamMemberBatchItemResultDto mapToTeamMemberBatchItemResultDto(Long userId, Long id, String status) {
+        TeamMemberBatchItemResultDto resultDto = new TeamMemberBatchItemResultDto();
+        resultDto.setUserId(userId);
+        resultDto.setId(id);
+        resultDto.setStatus(status);
+        return resultDto;
+    }
+
+    /**
+     * Builds the result of a user that a bulk request skipped
+     *
+     * @param userId  the ID of the user
+     * @param id      the ID of the membership, null when the user has none
+     * @param message why the user was skipped
+     * @return the item result
+     */
+    public static TeamMemberBatchItemResultDto failedTeamMemberBatchItem(Long userId, Long id, String message) {
+        TeamMemberBatchItemResultDto resultDto = new TeamMemberBatchItemResultDto();
+        resultDto.setUserId(userId);
+        resultDto.setId(id);
+        resultDto.setStatus(TeamConstants.BATCH_FAILED);
+        resultDto.setMessage(message);
+        return resultDto;
+    }
+
+    /**
+     * Collects the item results of a bulk request
+     *
+     * @param results the result for every user, in request order
+     * @return the bulk response
+     */
+    public static TeamMemberBatchResponseDto mapToTeamMemberBatchResponseDto(List<TeamMemberBatchItemResultDto> results) {
+        int failed = (int) results.stream().filter(result -> TeamConstants.BATCH_FAILED.equals(result.getStatus())).count();
+        TeamMemberBatchResponseDto responseDto = new TeamMemberBatchResponseDto();
+        responseDto.setSucceeded(results.size() - failed);
+        responseDto.setFailed(failed);
+        responseDto.setResults(new ArrayList<>(results));
+        return responseDto;
+    }
+
+    /**
+     * Maps a membership to the payload of its outbox event
+     *
+     * @param teamMember the membership, with its ID assigned
+     * @return the event payload
+     */
+    public static MemberEventDto mapToMemberEventDto(TeamMember teamMember) {
+        return new MemberEventDto(teamMember.getId(), teamMember.getTeamId(), teamMember.getCardId(),
+                teamMember.getUserId(), teamMember.getStatus());
+    }
+}
@@ -0,0 +1,47 @@
+package teams.teams.mapper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import teams.teams.repository.projection.TeamMemberRow;
+
+import java.io.IOException;
+
+/**
+ * Writes team member rows as {@code TeamMemberResponseDto} objects, in the field order and format
+ * Jackson uses for the generated DTO. Create one writer per response.
+ */
+public class TeamMemberJsonWriter extends JsonRowWriter {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString CARD_ID = new SerializedString("cardId");
+    private static final SerializableString USER_ID = new SerializedString("userId");
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializableString CREATED_BY = new SerializedString("createdBy");
+    private static final SerializableString UPDATED_AT = new SerializedString("updatedAt");
+    private static final SerializableString UPDATED_BY = new SerializedString("updatedBy");
+
+    public TeamMemberJsonWriter(JsonGenerator generator) {
+        super(generator);
+    }
+
+    /**
+     * Writes one team member
+     *
+     * @param row the team member to write
+     * @throws IOException if the generator cannot write
+     */
+    public void write(TeamMemberRow row) throws IOException {
+        generator.writeStartObject();
+        writeNumber(ID, row.id());
+        writeNumber(CARD_ID, row.cardId());
+        writeNumber(USER_ID, row.userId());
+        writeString(STATUS, row.status());
+        writeTimestamp(CREATED_AT, row.createdAt());
+        writeString(CREATED_BY, row.createdBy());
+        writeTimestamp(UPDATED_AT, row.updatedAt());
+        writeString(UPDATED_BY, row.updatedBy());
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,15 @@
+package teams.teams.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * A domain event waiting in the outbox table
+ *
+ * @param id        the event ID, also the order in which events are published
+ * @param eventType the event type, published as the {@code eventType} header
+ * @param key       the Kafka record key, the team ID, so the events of a team stay in order
+ * @param payload   the JSON body
+ * @param createdAt when the change was made
+ */
+public record OutboxEvent(Long id, String eventType, String key, String payload, LocalDateTime createdAt) {
+}
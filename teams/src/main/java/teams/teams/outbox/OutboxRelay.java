@@ -0,0 +1,182 @@
+package teams.teams.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import teams.teams.constants.TeamEventConstants;
+import teams.teams.repository.OutboxRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the outbox to Kafka. Every {@code outbox.relay.poll-ms} it claims the relay lease,
+ * reads up to {@code outbox.relay.batch-size} events, sends them all before waiting for any
+ * acknowledgement, and deletes the acknowledged ones with one statement. Full batches are
+ * followed by the next one straight away.
+ * <p>
+ * The claim, the read and the delete each commit on their own, so no row lock or transaction is
+ * held while Kafka is waited for. The lease lets one instance relay at a time, which keeps the
+ * events of a team in order; it outlasts a batch, whose sends share one
+ * {@code outbox.relay.send-timeout-ms} deadline, and passes to another instance when the holder
+ * stops renewing it for {@code outbox.relay.lease-ms}.
+ * <p>
+ * Delivery is at least once: events are deleted only after Kafka acknowledged them, and only up
+ * to the first failed send, so later events of the batch are retried after it and keep their
+ * order. A crash between the acknowledgement and the commit publishes a batch twice; consumers
+ * deduplicate on the {@code eventId} header.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final byte[] JSON = "application/json".getBytes(StandardCharsets.UTF_8);
+
+    private final OutboxRepository outboxRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final String topic;
+    private final int batchSize;
+    private final long sendTimeoutMillis;
+    private final long leaseMillis;
+
+    private final Counter published;
+    private final Counter failed;
+    private final DistributionSummary batches;
+    private final Timer delay;
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       @Qualifier("outboxKafkaTemplate") KafkaTemplate<String, String> kafkaTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${outbox.relay.topic:team-events}") String topic,
+                       @Value("${outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${outbox.relay.send-timeout-ms:30000}") long sendTimeoutMillis,
+                       @Value("${outbox.relay.lease-ms:60000}") long leaseMillis) {
+        if (leaseMillis <= sendTimeoutMillis) {
+            // A lease running out mid-batch would let a second relay publish the same team concurrently
+            throw new IllegalArgumentException("outbox.relay.lease-ms (" + leaseMillis
+                    + ") must be longer than outbox.relay.send-timeout-ms (" + sendTimeoutMillis + ")");
+        }
+        this.outboxRepository = outboxRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = topic;
+        this.batchSize = batchSize;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        this.leaseMillis = leaseMillis;
+        this.published = Counter.builder("outbox.events.published").tag("result", "success")
+                .description("Events acknowledged by Kafka and removed from the outbox")
+                .register(meterRegistry);
+        this.failed = Counter.builder("outbox.events.published").tag("result", "failure")
+                .description("Events left in the outbox because a send failed or timed out")
+                .register(meterRegistry);
+        this.batches = DistributionSummary.builder("outbox.relay.batch.size")
+                .description("Events locked per relay batch")
+                .register(meterRegistry);
+        this.delay = Timer.builder("outbox.events.delay")
+                .description("Time from the change to the Kafka acknowledgement of its event")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("outbox.relay.lag", lagMillis, AtomicLong::get)
+                .description("Age of the oldest event in the outbox at the last poll")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Relays batches until the outbox is drained, a send fails or another instance holds the lease
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-ms:200}")
+    public void relay() {
+        int relayed;
+        do {
+            relayed = relayBatch();
+        } while (relayed == batchSize && !Thread.currentThread().isInterrupted());
+    }
+
+    /**
+     * @return the number of events published and deleted
+     */
+    private int relayBatch() {
+        if (!outboxRepository.claimRelay(instanceId, leaseMillis)) {
+            return 0;
+        }
+        List<OutboxEvent> events = outboxRepository.findBatch(batchSize);
+        if (events.isEmpty()) {
+            lagMillis.set(0);
+            return 0;
+        }
+        lagMillis.set(Duration.between(events.get(0).createdAt(), LocalDateTime.now()).toMillis());
+        batches.record(events.size());
+
+        List<CompletableFuture<SendResult<String, String>>> sends = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            try {
+                sends.add(kafkaTemplate.send(toRecord(event)));
+            } catch (RuntimeException exception) {
+                // Metadata not available within max.block.ms, usually no broker reachable
+                log.warn("Event {} ({}) not sent, retrying on the next poll", event.id(), event.eventType(), exception);
+                break;
+            }
+        }
+        List<Long> acknowledged = new ArrayList<>(sends.size());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        for (int i = 0; i < sends.size(); i++) {
+            OutboxEvent event = events.get(i);
+            if (!awaitAcknowledgement(event, sends.get(i), deadline)) {
+                break;
+            }
+            acknowledged.add(event.id());
+            delay.record(Duration.between(event.createdAt(), LocalDateTime.now()));
+        }
+        outboxRepository.deleteAll(acknowledged);
+        published.increment(acknowledged.size());
+        failed.increment(events.size() - acknowledged.size());
+        return acknowledged.size();
+    }
+
+    private boolean awaitAcknowledgement(OutboxEvent event, CompletableFuture<SendResult<String, String>> send,
+                                         long deadline) {
+        try {
+            send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException exception) {
+            log.warn("Event {} ({}) not published, retrying on the next poll", event.id(), event.eventType(), exception);
+            return false;
+        }
+    }
+
+    private ProducerRecord<String, String> toRecord(OutboxEvent event) {
+        ProducerRecord<String, String> record = new ProducerRecord<>(topic, event.key(), event.payload());
+        record.headers().add(TeamEventConstants.EVENT_TYPE_HEADER, event.eventType().getBytes(StandardCharsets.UTF_8));
+        record.headers().add(TeamEventConstants.EVENT_ID_HEADER, event.id().toString().getBytes(StandardCharsets.UTF_8));
+        // Lets Spring Cloud Stream consumers convert the payload without configuring a content type
+        record.headers().add("contentType", JSON);
+        return record;
+    }
+}
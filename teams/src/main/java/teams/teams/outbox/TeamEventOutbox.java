@@ -0,0 +1,75 @@
+package teams.teams.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teamup.commons.id.IdGenerator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import teams.teams.repository.OutboxRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Records card and membership events in the outbox table, in the transaction that makes the
+ * change, so an event exists exactly when its change was committed. Publishing is left to
+ * {@link OutboxRelay}; the request only pays for the insert.
+ */
+@Component
+public class TeamEventOutbox {
+
+    private final OutboxRepository outboxRepository;
+    private final IdGenerator idGenerator;
+    private final ObjectMapper objectMapper;
+
+    public TeamEventOutbox(OutboxRepository outboxRepository, IdGenerator idGenerator, ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.idGenerator = idGenerator;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Records one event
+     *
+     * @param eventType the event type, from {@code TeamEventConstants}
+     * @param teamId    the team the event belongs to, used as the record key
+     * @param payload   the event body, serialized to JSON
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(String eventType, Long teamId, Object payload) {
+        addAll(eventType, List.of(payload), ignored -> teamId);
+    }
+
+    /**
+     * Records one event per payload with a single JDBC batch
+     *
+     * @param eventType the event type, from {@code TeamEventConstants}
+     * @param payloads  the event bodies, serialized to JSON
+     * @param teamId    gives the team of each payload, used as the record key
+     * @param <T>       the payload type
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T> void addAll(String eventType, List<T> payloads, Function<T, Long> teamId) {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = new ArrayList<>(payloads.size());
+        for (T payload : payloads) {
+            events.add(new OutboxEvent(idGenerator.nextId(), eventType, teamId.apply(payload).toString(),
+                    toJson(eventType, payload), now));
+        }
+        outboxRepository.insertAll(events);
+    }
+
+    private String toJson(String eventType, Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException exception) {
+            throw new IllegalArgumentException("Cannot serialize " + eventType + " event", exception);
+        }
+    }
+}
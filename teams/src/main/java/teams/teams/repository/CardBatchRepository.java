@@ -0,0 +1,158 @@
+package teams.teams.repository;
+
+import com.teamup.commons.id.IdGenerator;
+import com.teamup.commons.util.TransactionUtils;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import teams.teams.entity.Card;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes cards with JDBC batches, bypassing the persistence context: no entity instances,
+ * dirty checking or per-row events for bulk operations.
+ * <p>
+ * Rows written here are not seen by Hibernate: updated cards are evicted from the second-level
+ * cache once the transaction commits, and callers must not rely on managed copies of them.
+ */
+@Repository
+public class CardBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO cards (title, description, poster_url, owner_id, team_id, "
+            + "created_at, created_by, updated_at, updated_by, id, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String UPDATE_SQL = "UPDATE cards SET title = ?, description = ?, poster_url = ?, owner_id = ?, "
+            + "team_id = ?, updated_at = ?, updated_by = ?, version = version + 1 WHERE id = ? AND version = ?";
+    private static final String LOCK_VERSIONS_SQL = "SELECT id, version FROM cards WHERE id IN (:ids) FOR UPDATE";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final AuditorAware<String> auditorAware;
+    private final EntityManagerFactory entityManagerFactory;
+    private final IdGenerator idGenerator;
+    private final int batchSize;
+
+    public CardBatchRepository(JdbcTemplate jdbcTemplate, AuditorAware<String> auditorAware,
+                               EntityManagerFactory entityManagerFactory, IdGenerator idGenerator,
+                               @Value("${cards.batch.jdbc-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.auditorAware = auditorAware;
+        this.entityManagerFactory = entityManagerFactory;
+        this.idGenerator = idGenerator;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Inserts new cards and sets their IDs, audit fields and initial version
+     *
+     * @param cards cards without an ID, each with its team set
+     */
+    public void insertAll(List<Card> cards) {
+        LocalDateTime now = LocalDateTime.now();
+        String auditor = auditorAware.getCurrentAuditor().orElse("SYSTEM");
+        for (Card card : cards) {
+            card.setId(idGenerator.nextId());
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, cards, batchSize, (statement, card) -> {
+            setContent(statement, card);
+            statement.setTimestamp(6, Timestamp.valueOf(now));
+            statement.setString(7, auditor);
+            statement.setTimestamp(8, Timestamp.valueOf(now));
+            statement.setString(9, auditor);
+            statement.setLong(10, card.getId());
+        });
+        for (Card card : cards) {
+            card.setCreatedAt(now);
+            card.setCreatedBy(auditor);
+            card.setUpdatedAt(now);
+            card.setUpdatedBy(auditor);
+            card.setVersion(0L);
+        }
+    }
+
+    /**
+     * Updates existing cards, incrementing their version. The rows are locked and their versions
+     * read before the update, so a card is updated exactly when its row was found: the update
+     * counts cannot tell, since the MySQL driver reports SUCCESS_NO_INFO for rewritten batches.
+     *
+     * @param cards cards with their ID and new content set; updated ones get their new version
+     * @return for every card, whether a row was updated
+     */
+    public boolean[] updateAll(List<Card> cards) {
+        LocalDateTime now = LocalDateTime.now();
+        String auditor = auditorAware.getCurrentAuditor().orElse("SYSTEM");
+        Map<Long, Long> versions = lockVersions(cards.stream().map(Card::getId).toList());
+        boolean[] updated = new boolean[cards.size()];
+        List<Card> found = new ArrayList<>(versions.size());
+        for (int i = 0; i < cards.size(); i++) {
+            Long version = versions.get(cards.get(i).getId());
+            if (version != null) {
+                updated[i] = true;
+                cards.get(i).setVersion(version);
+                found.add(cards.get(i));
+            }
+        }
+        jdbcTemplate.batchUpdate(UPDATE_SQL, found, batchSize, (statement, card) -> {
+            setContent(statement, card);
+            statement.setTimestamp(6, Timestamp.valueOf(now));
+            statement.setString(7, auditor);
+            statement.setLong(8, card.getId());
+            statement.setLong(9, card.getVersion());
+        });
+        for (Card card : found) {
+            card.setUpdatedAt(now);
+            card.setUpdatedBy(auditor);
+            card.setVersion(card.getVersion() + 1);
+        }
+        List<Long> ids = found.stream().map(Card::getId).toList();
+        TransactionUtils.afterCommit(() -> ids.forEach(id -> entityManagerFactory.getCache().evict(Card.class, id)));
+        return updated;
+    }
+
+    /**
+     * Locks the cards that still exist until the current transaction ends
+     *
+     * @param ids the card IDs
+     * @return the current version of every card found, by ID
+     */
+    private Map<Long, Long> lockVersions(List<Long> ids) {
+        Map<Long, Long> versions = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            namedParameterJdbcTemplate.query(LOCK_VERSIONS_SQL,
+                    new MapSqlParameterSource("ids", ids.subList(from, Math.min(from + batchSize, ids.size()))),
+                    resultSet -> {
+                        versions.put(resultSet.getLong("id"), resultSet.getLong("version"));
+                    });
+        }
+        return versions;
+    }
+
+    private static void setContent(PreparedStatement statement, Card card) throws SQLException {
+        statement.setString(1, card.getTitle());
+        if (card.getDescription() != null) {
+            statement.setString(2, card.getDescription());
+        } else {
+            statement.setNull(2, Types.VARCHAR);
+        }
+        if (card.getPosterUrl() != null) {
+            statement.setString(3, card.getPosterUrl());
+        } else {
+            statement.setNull(3, Types.VARCHAR);
+        }
+        statement.setLong(4, card.getOwnerId());
+        statement.setLong(5, card.getTeam().getId());
+    }
+}
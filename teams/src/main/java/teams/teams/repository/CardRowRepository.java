@@ -0,0 +1,138 @@
+package teams.teams.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Repository;
+import teams.teams.entity.Card;
+import teams.teams.repository.projection.CardRow;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads card listings as {@link CardRow} projections: one constructor expression per row, no
+ * managed entities, no dirty-checking snapshots and no team proxies.
+ * <p>
+ * Accepts the same {@link Specification} filters as {@link CardsRepository}, so offset, count-free
+ * and keyset listings keep their filters and indexes.
+ */
+@Repository
+public class CardRowRepository {
+
+    private static final String UPDATED_AT = "updatedAt";
+    private static final String ID = "id";
+
+    private final EntityManager entityManager;
+
+    public CardRowRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Reads one page of card rows matching the specification, plus one row to tell whether a next page exists
+     *
+     * @param spec     the filter (may be null)
+     * @param pageable the page to read, with its sort
+     * @return the requested slice
+     */
+    public Slice<CardRow> findSlice(Specification<Card> spec, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CardRow> query = criteriaBuilder.createQuery(CardRow.class);
+        Root<Card> root = query.from(Card.class);
+        select(query, root, criteriaBuilder);
+        where(query, root, criteriaBuilder, spec, null);
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+        }
+        TypedQuery<CardRow> typedQuery = entityManager.createQuery(query);
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(typedQuery.getResultList(), pageable, false);
+        }
+        typedQuery.setFirstResult((int) pageable.getOffset());
+        typedQuery.setMaxResults(pageable.getPageSize() + 1);
+        List<CardRow> content = typedQuery.getResultList();
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    /**
+     * Reads at most limit card rows after the (updatedAt, id) keyset of the position, newest first
+     *
+     * @param spec     the filter (may be null)
+     * @param position the position of the last row of the previous window, or the initial position
+     * @param limit    the maximum number of rows
+     * @return the window, with the position of every row
+     */
+    public Window<CardRow> scroll(Specification<Card> spec, KeysetScrollPosition position, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CardRow> query = criteriaBuilder.createQuery(CardRow.class);
+        Root<Card> root = query.from(Card.class);
+        select(query, root, criteriaBuilder);
+        where(query, root, criteriaBuilder, spec, position.isInitial() ? null : after(root, criteriaBuilder, position));
+        query.orderBy(criteriaBuilder.desc(root.get(UPDATED_AT)), criteriaBuilder.desc(root.get(ID)));
+        List<CardRow> content = entityManager.createQuery(query)
+                .setMaxResults(limit + 1)
+                .getResultList();
+        boolean hasNext = content.size() > limit;
+        List<CardRow> rows = hasNext ? content.subList(0, limit) : content;
+        return Window.from(rows, index -> position(rows.get(index)), hasNext);
+    }
+
+    private static void select(CriteriaQuery<CardRow> query, Root<Card> root, CriteriaBuilder criteriaBuilder) {
+        query.select(criteriaBuilder.construct(CardRow.class,
+                root.get(ID), root.get("version"), root.get("title"), root.get("description"),
+                root.get("posterUrl"), root.get("ownerId"), root.get("team").get(ID),
+                root.get("createdAt"), root.get("createdBy"), root.get(UPDATED_AT), root.get("updatedBy")));
+    }
+
+    private static void where(CriteriaQuery<CardRow> query, Root<Card> root, CriteriaBuilder criteriaBuilder,
+                              Specification<Card> spec, Predicate keyset) {
+        List<Predicate> predicates = new ArrayList<>(2);
+        Predicate filter = spec != null ? spec.toPredicate(root, query, criteriaBuilder) : null;
+        if (filter != null) {
+            predicates.add(filter);
+        }
+        if (keyset != null) {
+            predicates.add(keyset);
+        }
+        if (!predicates.isEmpty()) {
+            query.where(predicates.toArray(new Predicate[0]));
+        }
+    }
+
+    /**
+     * (updatedAt, id) strictly before the position, in the descending order of the listing
+     */
+    private static Predicate after(Root<Card> root, CriteriaBuilder criteriaBuilder, KeysetScrollPosition position) {
+        Path<LocalDateTime> updatedAt = root.get(UPDATED_AT);
+        Path<Long> id = root.get(ID);
+        LocalDateTime lastUpdatedAt = (LocalDateTime) position.getKeys().get(UPDATED_AT);
+        Long lastId = (Long) position.getKeys().get(ID);
+        return criteriaBuilder.or(
+                criteriaBuilder.lessThan(updatedAt, lastUpdatedAt),
+                criteriaBuilder.and(criteriaBuilder.equal(updatedAt, lastUpdatedAt), criteriaBuilder.lessThan(id, lastId)));
+    }
+
+    private static ScrollPosition position(CardRow row) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(UPDATED_AT, row.updatedAt());
+        keys.put(ID, row.id());
+        return ScrollPosition.forward(keys);
+    }
+}
@@ -1,15 +1,67 @@
 package teams.teams.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import teams.teams.entity.Card;
+import teams.teams.repository.projection.CardAuditView;
+import teams.teams.repository.projection.CardSearchView;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface CardsRepository extends JpaRepository<Card, Long>, JpaSpecificationExecutor<Card> {
+public interface CardsRepository extends JpaRepository<Card, Long>, JpaSpecificationExecutor<Card>,
+        SliceSpecificationExecutor<Card> {
     List<Card> findByOwnerId(Long ownerId);
 
     List<Card> findByTeam_Id(Long teamId);
+
+    /**
+     * Read the version of a card without loading it.
+     *
+     * @param id the ID of the card
+     * @return optional containing the version if the card exists
+     */
+    @Query("SELECT c.version FROM cards c WHERE c.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Reads the searchable text of cards with an ID greater than afterId, ordered by ID.
+     * Used to load the search index in keyset batches.
+     *
+     * @param afterId the last ID of the previous batch, 0 for the first one
+     * @param pageable the batch size
+     * @return the next batch of card texts
+     */
+    @Query("SELECT c.id AS id, c.title AS title, c.description AS description FROM cards c WHERE c.id > :afterId ORDER BY c.id")
+    List<CardSearchView> findSearchViewsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Reads the searchable text of cards updated at or after a time with an ID greater than
+     * afterId, ordered by ID. Used to catch the search index up with writes of other instances.
+     *
+     * @param since    the earliest update time
+     * @param afterId  the last ID of the previous batch, 0 for the first one
+     * @param pageable the batch size
+     * @return the next batch of card texts
+     */
+    @Query("SELECT c.id AS id, c.title AS title, c.description AS description FROM cards c "
+            + "WHERE c.updatedAt >= :since AND c.id > :afterId ORDER BY c.id")
+    List<CardSearchView> findSearchViewsUpdatedSince(@Param("since") LocalDateTime since, @Param("afterId") Long afterId,
+                                                     Pageable pageable);
+
+    /**
+     * Reads the version and creation audit of many cards without loading them, for bulk updates
+     *
+     * @param ids the IDs of the cards
+     * @return the cards that exist
+     */
+    @Query("SELECT c.id AS id, c.version AS version, c.createdAt AS createdAt, c.createdBy AS createdBy FROM cards c WHERE c.id IN :ids")
+    List<CardAuditView> findAuditViewsByIdIn(@Param("ids") Collection<Long> ids);
 }
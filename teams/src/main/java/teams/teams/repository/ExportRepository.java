@@ -0,0 +1,104 @@
+package teams.teams.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import teams.teams.repository.projection.CardRow;
+import teams.teams.repository.projection.TeamMemberRow;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads whole tables for exports through a forward-only, read-only JDBC cursor, handing every row
+ * to a consumer as soon as it is read. Neither the persistence context nor a result list is
+ * involved, so memory does not grow with the number of rows.
+ * <p>
+ * The driver fetches {@code exports.fetch-size} rows per round-trip. MySQL Connector/J only honours
+ * a positive fetch size with {@code useCursorFetch=true}; without it the whole result is buffered.
+ * Must run inside a transaction, which keeps the connection (and the cursor) for the whole export.
+ */
+@Repository
+public class ExportRepository {
+
+    private static final String CARDS_SQL = "SELECT id, version, title, description, poster_url, owner_id, team_id, "
+            + "created_at, created_by, updated_at, updated_by FROM cards";
+    private static final String TEAM_MEMBERS_SQL = "SELECT id, card_id, user_id, status, created_at, created_by, "
+            + "updated_at, updated_by FROM team_member WHERE team_id = ? ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    public ExportRepository(JdbcTemplate jdbcTemplate, @Value("${exports.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Streams the cards matching the filters in ID order
+     *
+     * @param ownerId  the owner ID to filter by (optional)
+     * @param teamId   the team ID to filter by (optional)
+     * @param consumer receives every card as it is read
+     */
+    public void streamCards(Long ownerId, Long teamId, Consumer<CardRow> consumer) {
+        StringBuilder sql = new StringBuilder(CARDS_SQL);
+        List<Long> parameters = new ArrayList<>(2);
+        if (ownerId != null) {
+            sql.append(" WHERE owner_id = ?");
+            parameters.add(ownerId);
+        }
+        if (teamId != null) {
+            sql.append(parameters.isEmpty() ? " WHERE" : " AND").append(" team_id = ?");
+            parameters.add(teamId);
+        }
+        sql.append(" ORDER BY id");
+        stream(sql.toString(), parameters, resultSet -> consumer.accept(new CardRow(
+                resultSet.getLong("id"),
+                resultSet.getLong("version"),
+                resultSet.getString("title"),
+                resultSet.getString("description"),
+                resultSet.getString("poster_url"),
+                resultSet.getObject("owner_id", Long.class),
+                resultSet.getObject("team_id", Long.class),
+                resultSet.getObject("created_at", LocalDateTime.class),
+                resultSet.getString("created_by"),
+                resultSet.getObject("updated_at", LocalDateTime.class),
+                resultSet.getString("updated_by"))));
+    }
+
+    /**
+     * Streams the members of a team in ID order
+     *
+     * @param teamId   the team ID
+     * @param consumer receives every member as it is read
+     */
+    public void streamTeamMembers(Long teamId, Consumer<TeamMemberRow> consumer) {
+        stream(TEAM_MEMBERS_SQL, List.of(teamId), resultSet -> consumer.accept(new TeamMemberRow(
+                resultSet.getLong("id"),
+                resultSet.getObject("card_id", Long.class),
+                resultSet.getLong("user_id"),
+                resultSet.getString("status"),
+                resultSet.getObject("created_at", LocalDateTime.class),
+                resultSet.getString("created_by"),
+                resultSet.getObject("updated_at", LocalDateTime.class),
+                resultSet.getString("updated_by"))));
+    }
+
+    private void stream(String sql, List<Long> parameters, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setLong(i + 1, parameters.get(i));
+            }
+            return statement;
+        }, handler);
+    }
+}
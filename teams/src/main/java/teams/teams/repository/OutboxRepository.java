@@ -0,0 +1,99 @@
+package teams.teams.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import teams.teams.outbox.OutboxEvent;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reads and writes the {@code outbox_event} table with plain JDBC. Inserts join the transaction
+ * of the change the events describe. The relay claims the {@code outbox_relay_lease} row, reads a
+ * batch and, once it is published, deletes it; each of these is a single statement of its own,
+ * so no lock is held while Kafka is waited for.
+ */
+@Repository
+public class OutboxRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO outbox_event (id, event_type, event_key, payload, created_at) "
+            + "VALUES (?, ?, ?, ?, ?)";
+    // Snowflake IDs follow the clocks of the instances that wrote the events, so events written on
+    // different instances within their clock skew can be read out of order
+    private static final String FIND_BATCH_SQL = "SELECT id, event_type, event_key, payload, created_at FROM outbox_event "
+            + "ORDER BY id LIMIT ?";
+    // Database clock on both sides, so clock skew between instances cannot shorten or extend a lease
+    private static final String CLAIM_RELAY_SQL = "UPDATE outbox_relay_lease SET claimed_by = ?, "
+            + "expires_at = TIMESTAMPADD(MICROSECOND, ?, CURRENT_TIMESTAMP(6)) "
+            + "WHERE id = 1 AND (claimed_by = ? OR expires_at < CURRENT_TIMESTAMP(6))";
+    private static final String DELETE_SQL = "DELETE FROM outbox_event WHERE id IN (:ids)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final int batchSize;
+
+    public OutboxRepository(JdbcTemplate jdbcTemplate,
+                            @Value("${teams.batch.jdbc-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Adds events with JDBC batches
+     *
+     * @param events the events, with their IDs assigned
+     */
+    public void insertAll(List<OutboxEvent> events) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, batchSize, (statement, event) -> {
+            statement.setLong(1, event.id());
+            statement.setString(2, event.eventType());
+            statement.setString(3, event.key());
+            statement.setString(4, event.payload());
+            statement.setTimestamp(5, Timestamp.valueOf(event.createdAt()));
+        });
+    }
+
+    /**
+     * Takes or renews the relay lease. Only the holder publishes, so events are sent in ID order.
+     *
+     * @param instanceId  the ID of the calling relay
+     * @param leaseMillis how long the lease lasts from now
+     * @return true if the caller holds the lease until then, false if another relay holds it
+     */
+    public boolean claimRelay(String instanceId, long leaseMillis) {
+        return jdbcTemplate.update(CLAIM_RELAY_SQL, instanceId, leaseMillis * 1000, instanceId) == 1;
+    }
+
+    /**
+     * Reads the oldest events without locking them
+     *
+     * @param limit the maximum number of events
+     * @return the events in ID order, which is creation order as far as the instance clocks agree
+     */
+    public List<OutboxEvent> findBatch(int limit) {
+        return jdbcTemplate.query(FIND_BATCH_SQL, (resultSet, rowNum) -> new OutboxEvent(
+                resultSet.getLong("id"),
+                resultSet.getString("event_type"),
+                resultSet.getString("event_key"),
+                resultSet.getString("payload"),
+                resultSet.getTimestamp("created_at").toLocalDateTime()), limit);
+    }
+
+    /**
+     * Deletes published events
+     *
+     * @param ids the event IDs, at most one relay batch
+     * @return the number of deleted rows
+     */
+    public int deleteAll(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return namedParameterJdbcTemplate.update(DELETE_SQL, new MapSqlParameterSource("ids", ids));
+    }
+}
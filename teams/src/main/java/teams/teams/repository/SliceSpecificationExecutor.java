@@ -0,0 +1,25 @@
+package teams.teams.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.NoRepositoryBean;
+
+/**
+ * Specification queries that return a {@link Slice} instead of a {@link org.springframework.data.domain.Page},
+ * so no count query is issued. Implemented by {@link SliceJpaRepository}.
+ *
+ * @param <T> the entity type
+ */
+@NoRepositoryBean
+public interface SliceSpecificationExecutor<T> {
+
+    /**
+     * Reads one page of entities matching the specification, plus one row to tell whether a next page exists
+     *
+     * @param spec the filter (may be null)
+     * @param pageable the page to read
+     * @return the requested slice
+     */
+    Slice<T> findSlice(Specification<T> spec, Pageable pageable);
+}
@@ -0,0 +1,191 @@
+package teams.teams.repository;
+
+import com.teamup.commons.id.IdGenerator;
+import com.teamup.commons.util.TransactionUtils;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import teams.teams.constants.TeamConstants;
+import teams.teams.entity.Team;
+import teams.teams.entity.TeamMember;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes memberships with plain JDBC and lets the unique {@code (card_id, user_id)} key decide
+ * whether the user already belongs to the card.
+ * <p>
+ * The insert is the only statement on the membership table, so there is no check-then-insert
+ * window for two concurrent requests to slip through. A failed insert does not abort the
+ * surrounding MySQL transaction. Memberships are not in the second-level cache, so nothing has
+ * to be evicted after a write; a team whose version is moved here is evicted by ID once the
+ * transaction commits, leaving the rest of the team cache region in place.
+ */
+@Repository
+public class TeamMemberBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO team_member (id, team_id, card_id, user_id, role, status, "
+            + "joined_at, created_at, created_by, updated_at, updated_by, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    // The no-op update turns a duplicate (card_id, user_id) into a skipped row instead of an error
+    private static final String INSERT_IGNORING_DUPLICATES_SQL = INSERT_SQL + " ON DUPLICATE KEY UPDATE id = id";
+    private static final String EXISTING_IDS_SQL = "SELECT id FROM team_member WHERE id IN (:ids)";
+    private static final String JOIN_SQL = "UPDATE team_member SET status = :status, joined_at = :now, updated_at = :now, "
+            + "updated_by = :auditor, version = version + 1 WHERE id IN (:ids)";
+    private static final String REJECT_SQL = "UPDATE team_member SET status = :status, updated_at = :now, "
+            + "updated_by = :auditor, version = version + 1 WHERE id IN (:ids)";
+    private static final String INCREMENT_TEAM_VERSION_SQL = "UPDATE team SET version = version + 1 WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final AuditorAware<String> auditorAware;
+    private final EntityManagerFactory entityManagerFactory;
+    private final IdGenerator idGenerator;
+    private final int batchSize;
+
+    public TeamMemberBatchRepository(JdbcTemplate jdbcTemplate, AuditorAware<String> auditorAware,
+                                     EntityManagerFactory entityManagerFactory, IdGenerator idGenerator,
+                                     @Value("${teams.batch.jdbc-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.auditorAware = auditorAware;
+        this.entityManagerFactory = entityManagerFactory;
+        this.idGenerator = idGenerator;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Inserts the membership unless the user already has one for the card. On success the ID,
+     * audit fields and initial version are set on the given instance.
+     *
+     * @param teamMember a new membership with team, card, user, role and status set
+     * @return true if inserted, false if a membership for the same card and user already exists
+     */
+    public boolean insertIfAbsent(TeamMember teamMember) {
+        LocalDateTime now = LocalDateTime.now();
+        String auditor = auditorAware.getCurrentAuditor().orElse("SYSTEM");
+        teamMember.setId(idGenerator.nextId());
+        boolean inserted = insertOne(teamMember, now, auditor);
+        written(teamMember, inserted, now, auditor);
+        return inserted;
+    }
+
+    /**
+     * Inserts many memberships with JDBC batches of {@code INSERT ... ON DUPLICATE KEY UPDATE}.
+     * Memberships whose card and user already have one, including ones added concurrently, are
+     * skipped by the database without failing the batch; their ID stays null.
+     *
+     * @param teamMembers new memberships with team, card, user, role and status set
+     * @return for every membership, whether it was inserted
+     */
+    public boolean[] insertAllIfAbsent(List<TeamMember> teamMembers) {
+        LocalDateTime now = LocalDateTime.now();
+        String auditor = auditorAware.getCurrentAuditor().orElse("SYSTEM");
+        teamMembers.forEach(teamMember -> teamMember.setId(idGenerator.nextId()));
+        jdbcTemplate.batchUpdate(INSERT_IGNORING_DUPLICATES_SQL, teamMembers, batchSize,
+                (statement, teamMember) -> setInsertValues(statement, teamMember, now, auditor));
+        // Rewritten batches do not report per-row counts: a row was inserted if its generated ID is in the table
+        Set<Long> insertedIds = findExistingIds(teamMembers.stream().map(TeamMember::getId).toList());
+        boolean[] inserted = new boolean[teamMembers.size()];
+        for (int i = 0; i < inserted.length; i++) {
+            TeamMember teamMember = teamMembers.get(i);
+            inserted[i] = insertedIds.contains(teamMember.getId());
+            written(teamMember, inserted[i], now, auditor);
+        }
+        return inserted;
+    }
+
+    /**
+     * Sets the status of many memberships with one UPDATE per call, incrementing their version
+     *
+     * @param ids    the IDs of the memberships
+     * @param status JOINED, which also sets the join time, or REJECTED
+     * @return the number of memberships updated
+     */
+    public int updateStatus(Collection<Long> ids, String status) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("status", status)
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now()))
+                .addValue("auditor", auditorAware.getCurrentAuditor().orElse("SYSTEM"));
+        String sql = TeamConstants.STATUS_JOINED.equals(status) ? JOIN_SQL : REJECT_SQL;
+        return namedParameterJdbcTemplate.update(sql, parameters);
+    }
+
+    /**
+     * Increments the version of a team whose memberships changed, so its ETag changes too.
+     * <p>
+     * A single atomic UPDATE: concurrent membership writes to the same team never lose an
+     * increment and do not queue on a lock held until the end of their transactions. Unlike a
+     * JPQL bulk update, it does not invalidate the whole team region of the second-level cache.
+     *
+     * @param teamId the ID of the team
+     * @return the number of teams updated, 0 if the team does not exist
+     */
+    public int incrementTeamVersion(Long teamId) {
+        int updated = jdbcTemplate.update(INCREMENT_TEAM_VERSION_SQL, teamId);
+        TransactionUtils.afterCommit(() -> entityManagerFactory.getCache().evict(Team.class, teamId));
+        return updated;
+    }
+
+    private boolean insertOne(TeamMember teamMember, LocalDateTime now, String auditor) {
+        try {
+            jdbcTemplate.update(INSERT_SQL, statement -> setInsertValues(statement, teamMember, now, auditor));
+            return true;
+        } catch (DuplicateKeyException exception) {
+            return false;
+        }
+    }
+
+    private Set<Long> findExistingIds(List<Long> ids) {
+        Set<Long> existingIds = new HashSet<>();
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            existingIds.addAll(namedParameterJdbcTemplate.queryForList(EXISTING_IDS_SQL,
+                    new MapSqlParameterSource("ids", ids.subList(from, Math.min(from + batchSize, ids.size()))), Long.class));
+        }
+        return existingIds;
+    }
+
+    private static void setInsertValues(PreparedStatement statement, TeamMember teamMember,
+                                        LocalDateTime now, String auditor) throws SQLException {
+        statement.setLong(1, teamMember.getId());
+        statement.setLong(2, teamMember.getTeamId());
+        statement.setLong(3, teamMember.getCardId());
+        statement.setLong(4, teamMember.getUserId());
+        statement.setString(5, teamMember.getRole());
+        statement.setString(6, teamMember.getStatus());
+        if (teamMember.getJoinedAt() != null) {
+            statement.setTimestamp(7, Timestamp.valueOf(teamMember.getJoinedAt()));
+        } else {
+            statement.setNull(7, Types.TIMESTAMP);
+        }
+        statement.setTimestamp(8, Timestamp.valueOf(now));
+        statement.setString(9, auditor);
+        statement.setTimestamp(10, Timestamp.valueOf(now));
+        statement.setString(11, auditor);
+    }
+
+    private static void written(TeamMember teamMember, boolean inserted, LocalDateTime now, String auditor) {
+        if (!inserted) {
+            teamMember.setId(null);
+            return;
+        }
+        teamMember.setCreatedAt(now);
+        teamMember.setCreatedBy(auditor);
+        teamMember.setUpdatedAt(now);
+        teamMember.setUpdatedBy(auditor);
+        teamMember.setVersion(0L);
+    }
+}
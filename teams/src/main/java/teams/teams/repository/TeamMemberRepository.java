@@ -3,15 +3,22 @@ package teams.teams.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import teams.teams.entity.TeamMember;
+import teams.teams.repository.projection.MembershipView;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TeamMemberRepository extends JpaRepository<TeamMember, Long>, JpaSpecificationExecutor<TeamMember> {
+public interface TeamMemberRepository extends JpaRepository<TeamMember, Long>, JpaSpecificationExecutor<TeamMember>,
+        SliceSpecificationExecutor<TeamMember> {
 
     /**
      * Find all team members for a specific team with pagination.
@@ -43,4 +50,36 @@ public interface TeamMemberRepository extends JpaRepository<TeamMember, Long>, J
      * @return optional containing the team member if found
      */
     Optional<TeamMember> findByTeamIdAndUserId(Long teamId, Long userId);
-}
\ No newline at end of file
+
+    /**
+     * Find the IDs of the teams a user belongs to, read from the (user_id, team_id, status) index
+     *
+     * @param userId the ID of the user
+     * @param excludedStatus memberships in this status are ignored
+     * @return distinct team IDs in ascending order
+     */
+    @Query("SELECT DISTINCT tm.teamId FROM team_member tm WHERE tm.userId = :userId AND tm.status <> :excludedStatus ORDER BY tm.teamId")
+    List<Long> findTeamIdsByUserId(@Param("userId") Long userId, @Param("excludedStatus") String excludedStatus);
+
+    /**
+     * Finds the memberships of many users on a card in one query, without loading them
+     *
+     * @param cardId the ID of the card
+     * @param userIds the IDs of the users
+     * @return the memberships that exist
+     */
+    @Query("SELECT tm.id AS id, tm.userId AS userId, tm.teamId AS teamId FROM team_member tm "
+            + "WHERE tm.cardId = :cardId AND tm.userId IN :userIds")
+    List<MembershipView> findViewsByCardIdAndUserIdIn(@Param("cardId") Long cardId,
+                                                      @Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Same as {@link #findViewsByCardIdAndUserIdIn(Long, Collection)}, locking the rows until the
+     * transaction ends so they cannot be removed before a bulk update
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT tm.id AS id, tm.userId AS userId, tm.teamId AS teamId FROM team_member tm "
+            + "WHERE tm.cardId = :cardId AND tm.userId IN :userIds")
+    List<MembershipView> lockViewsByCardIdAndUserIdIn(@Param("cardId") Long cardId,
+                                                      @Param("userIds") Collection<Long> userIds);
+}
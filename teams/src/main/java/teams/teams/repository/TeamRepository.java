@@ -2,18 +2,41 @@ package teams.teams.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import teams.teams.entity.Team;
 
+import java.util.Optional;
+
 @Repository
-public interface TeamRepository extends JpaRepository<Team, Long> {
+public interface TeamRepository extends JpaRepository<Team, Long>, JpaSpecificationExecutor<Team>,
+        SliceSpecificationExecutor<Team> {
 
     /**
      * Find teams where the given user is a member (for "my teams").
      */
     @Query("SELECT t FROM team t WHERE t.id IN (SELECT tm.teamId FROM team_member tm WHERE tm.userId = :userId)")
     Page<Team> findTeamsByMemberUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Find a team together with its members in a single join.
+     *
+     * @param id the ID of the team
+     * @return optional containing the team with initialized members if found
+     */
+    @EntityGraph(attributePaths = "teamMembers")
+    Optional<Team> findWithMembersById(Long id);
+
+    /**
+     * Read the version of a team without loading it.
+     *
+     * @param id the ID of the team
+     * @return optional containing the version if the team exists
+     */
+    @Query("SELECT t.version FROM team t WHERE t.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
 }
@@ -0,0 +1,128 @@
+package teams.teams.repository;
+
+import com.teamup.commons.util.TransactionUtils;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import teams.teams.dto.MemberEventDto;
+import teams.teams.entity.Card;
+import teams.teams.entity.Team;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Removes what teams holds about deleted users with set-based statements, one chunk at a time.
+ * Every lock method takes the rows of one chunk; the caller runs each chunk in its own short
+ * transaction, so no statement holds locks on more than a chunk of rows.
+ * <p>
+ * Rows written here are not seen by Hibernate: changed cards and teams are evicted from the
+ * second-level cache once the transaction commits.
+ */
+@Repository
+public class UserCleanupRepository {
+
+    private static final String LOCK_MEMBERSHIPS_SQL = "SELECT id, team_id, card_id, user_id, status FROM team_member "
+            + "WHERE user_id IN (:userIds) LIMIT :limit FOR UPDATE";
+    private static final String DELETE_TEAM_LINKS_SQL = "DELETE FROM team_members WHERE team_member_id IN (:ids)";
+    private static final String DELETE_MEMBERSHIPS_SQL = "DELETE FROM team_member WHERE id IN (:ids)";
+    private static final String LOCK_CARDS_SQL = "SELECT id FROM cards WHERE owner_id IN (:userIds) LIMIT :limit FOR UPDATE";
+    private static final String REASSIGN_CARDS_SQL = "UPDATE cards SET owner_id = :ownerId, updated_at = :now, "
+            + "updated_by = :auditor, version = version + 1 WHERE id IN (:ids)";
+    private static final String INCREMENT_TEAM_VERSIONS_SQL = "UPDATE team SET version = version + 1 WHERE id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final AuditorAware<String> auditorAware;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public UserCleanupRepository(JdbcTemplate jdbcTemplate, AuditorAware<String> auditorAware,
+                                 EntityManagerFactory entityManagerFactory) {
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.auditorAware = auditorAware;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Locks memberships of the users until the current transaction ends
+     *
+     * @param userIds the IDs of the deleted users
+     * @param limit   the chunk size
+     * @return up to {@code limit} memberships
+     */
+    public List<MemberEventDto> lockMemberships(Collection<Long> userIds, int limit) {
+        return namedParameterJdbcTemplate.query(LOCK_MEMBERSHIPS_SQL,
+                new MapSqlParameterSource("userIds", userIds).addValue("limit", limit),
+                (resultSet, rowNum) -> new MemberEventDto(
+                        resultSet.getLong("id"),
+                        resultSet.getLong("team_id"),
+                        resultSet.getObject("card_id", Long.class),
+                        resultSet.getLong("user_id"),
+                        resultSet.getString("status")));
+    }
+
+    /**
+     * Deletes memberships together with their rows in the {@code team_members} join table
+     *
+     * @param ids the membership IDs, at most one chunk
+     * @return the number of deleted memberships
+     */
+    public int deleteMemberships(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource("ids", ids);
+        namedParameterJdbcTemplate.update(DELETE_TEAM_LINKS_SQL, parameters);
+        return namedParameterJdbcTemplate.update(DELETE_MEMBERSHIPS_SQL, parameters);
+    }
+
+    /**
+     * Locks cards owned by the users until the current transaction ends
+     *
+     * @param userIds the IDs of the deleted users
+     * @param limit   the chunk size
+     * @return the IDs of up to {@code limit} cards
+     */
+    public List<Long> lockOwnedCards(Collection<Long> userIds, int limit) {
+        return namedParameterJdbcTemplate.queryForList(LOCK_CARDS_SQL,
+                new MapSqlParameterSource("userIds", userIds).addValue("limit", limit), Long.class);
+    }
+
+    /**
+     * Gives cards a new owner and increments their version
+     *
+     * @param ids     the card IDs, at most one chunk
+     * @param ownerId the new owner
+     * @return the number of updated cards
+     */
+    public int reassignCards(Collection<Long> ids, long ownerId) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int updated = namedParameterJdbcTemplate.update(REASSIGN_CARDS_SQL, new MapSqlParameterSource("ids", ids)
+                .addValue("ownerId", ownerId)
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now()))
+                .addValue("auditor", auditorAware.getCurrentAuditor().orElse("SYSTEM")));
+        List<Long> evicted = List.copyOf(ids);
+        TransactionUtils.afterCommit(() -> evicted.forEach(id -> entityManagerFactory.getCache().evict(Card.class, id)));
+        return updated;
+    }
+
+    /**
+     * Increments the version of teams whose members changed, so their ETags change
+     *
+     * @param ids the team IDs
+     */
+    public void incrementTeamVersions(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        namedParameterJdbcTemplate.update(INCREMENT_TEAM_VERSIONS_SQL, new MapSqlParameterSource("ids", ids));
+        List<Long> evicted = List.copyOf(ids);
+        TransactionUtils.afterCommit(() -> evicted.forEach(id -> entityManagerFactory.getCache().evict(Team.class, id)));
+    }
+}
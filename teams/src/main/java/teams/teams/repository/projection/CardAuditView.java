@@ -0,0 +1,17 @@
+package teams.teams.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection with the columns of a card that a bulk update keeps, read without loading the entity
+ */
+public interface CardAuditView {
+
+    Long getId();
+
+    Long getVersion();
+
+    LocalDateTime getCreatedAt();
+
+    String getCreatedBy();
+}
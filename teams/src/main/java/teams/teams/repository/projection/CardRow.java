@@ -0,0 +1,12 @@
+package teams.teams.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns of a card that listings return, read with a constructor expression instead of
+ * loading the entity. The team is read as its foreign key, so no team proxy is created.
+ */
+public record CardRow(Long id, Long version, String title, String description, String posterUrl, Long ownerId,
+                      Long teamId, LocalDateTime createdAt, String createdBy, LocalDateTime updatedAt,
+                      String updatedBy) {
+}
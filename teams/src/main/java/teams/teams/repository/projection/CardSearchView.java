@@ -0,0 +1,13 @@
+package teams.teams.repository.projection;
+
+/**
+ * Projection with the searchable text of a card, used to build the in-memory search index
+ */
+public interface CardSearchView {
+
+    Long getId();
+
+    String getTitle();
+
+    String getDescription();
+}
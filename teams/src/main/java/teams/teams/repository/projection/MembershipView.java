@@ -0,0 +1,13 @@
+package teams.teams.repository.projection;
+
+/**
+ * Projection with the keys of a membership, read without loading the entity
+ */
+public interface MembershipView {
+
+    Long getId();
+
+    Long getUserId();
+
+    Long getTeamId();
+}
@@ -0,0 +1,10 @@
+package teams.teams.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns of a team member that exports return, read straight from a JDBC result set.
+ */
+public record TeamMemberRow(Long id, Long cardId, Long userId, String status, LocalDateTime createdAt,
+                            String createdBy, LocalDateTime updatedAt, String updatedBy) {
+}
@@ -0,0 +1,375 @@
+package teams.teams.search;
+
+import com.teamup.commons.util.TransactionUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import teams.teams.entity.Card;
+import teams.teams.repository.CardsRepository;
+import teams.teams.repository.projection.CardSearchView;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongFunction;
+
+/**
+ * In-memory trigram inverted index over card titles and descriptions.
+ * <p>
+ * Narrows "contains" searches down to candidate card IDs, so SQL checks the text filters on a
+ * few rows instead of scanning the cards table. The index is a pre-filter only: callers keep the
+ * SQL filters, so a stale entry can never return a wrong card.
+ * <p>
+ * The index is loaded once the application is ready and updated by the card service of this
+ * instance. Writes made by other instances are read back every {@code cards.search.refresh-ms}
+ * by their update time; until then they are covered by {@link SearchCandidates#uncheckedSince()},
+ * which callers must include. Rows read by a load are skipped if this instance wrote them in the
+ * meantime, so a load never brings back an older title or a deleted card. Until the index is
+ * loaded, or when a search is too broad to narrow down, callers fall back to SQL.
+ */
+@Component
+public class CardSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CardSearchIndex.class);
+
+    private static final int GRAM = 3;
+
+    private final CardsRepository cardsRepository;
+    private final int batchSize;
+    private final int maxCandidates;
+    private final long refreshOverlapMillis;
+
+    private final Map<String, Set<Long>> titlePostings = new HashMap<>();
+    private final Map<String, Set<Long>> descriptionPostings = new HashMap<>();
+    private final Map<Long, IndexedCard> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // IDs written by this instance while a load runs, null otherwise; guarded by the write lock
+    private Set<Long> writtenDuringLoad;
+
+    private volatile boolean ready;
+    private volatile LocalDateTime uncheckedSince;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter fallbacks;
+
+    public CardSearchIndex(CardsRepository cardsRepository, MeterRegistry meterRegistry,
+                           @Value("${cards.search.batch-size:1000}") int batchSize,
+                           @Value("${cards.search.max-candidates:1000}") int maxCandidates,
+                           @Value("${cards.search.refresh-overlap-ms:60000}") long refreshOverlapMillis) {
+        this.cardsRepository = cardsRepository;
+        this.batchSize = batchSize;
+        this.maxCandidates = maxCandidates;
+        this.refreshOverlapMillis = refreshOverlapMillis;
+        Gauge.builder("cards.search.index.documents", this, CardSearchIndex::documentCount)
+                .description("Cards held in the search index")
+                .register(meterRegistry);
+        Gauge.builder("cards.search.index.trigrams", this, CardSearchIndex::trigramCount)
+                .description("Distinct trigrams in the search index")
+                .register(meterRegistry);
+        this.hits = Counter.builder("cards.search.index.lookups").tag("result", "hit")
+                .description("Searches resolved by the index with at least one candidate")
+                .register(meterRegistry);
+        this.misses = Counter.builder("cards.search.index.lookups").tag("result", "miss")
+                .description("Searches resolved by the index with no candidate")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("cards.search.index.lookups").tag("result", "fallback")
+                .description("Searches answered by SQL because the index was not ready or too broad")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads every card into the index in keyset batches. Runs on the task executor, so startup does
+     * not wait for it; searches fall back to SQL until it finishes.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        LocalDateTime loadStart = LocalDateTime.now();
+        load(lastId -> cardsRepository.findSearchViewsAfter(lastId, PageRequest.of(0, batchSize)));
+        uncheckedSince = loadStart.minusNanos(refreshOverlapMillis * 1_000_000);
+        ready = true;
+        log.info("Card search index loaded {} cards in {} ms", documentCount(), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Reads back the cards updated since the last load, including those written by other
+     * instances. The overlap absorbs clock skew between instances and transactions that commit
+     * after their update time.
+     */
+    @Scheduled(fixedDelayString = "${cards.search.refresh-ms:5000}")
+    public void refresh() {
+        if (!ready) {
+            return;
+        }
+        LocalDateTime since = uncheckedSince;
+        LocalDateTime loadStart = LocalDateTime.now();
+        load(lastId -> cardsRepository.findSearchViewsUpdatedSince(since, lastId, PageRequest.of(0, batchSize)));
+        uncheckedSince = loadStart.minusNanos(refreshOverlapMillis * 1_000_000);
+    }
+
+    /**
+     * Adds or replaces a card in the index once the current transaction commits
+     *
+     * @param card the saved card
+     */
+    public void index(Card card) {
+        Long id = card.getId();
+        String title = card.getTitle();
+        String description = card.getDescription();
+        TransactionUtils.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                put(id, title, description);
+                written(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Removes a card from the index once the current transaction commits
+     *
+     * @param cardId the ID of the deleted card
+     */
+    public void remove(Long cardId) {
+        TransactionUtils.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                delete(cardId);
+                written(cardId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Resolves the IDs of cards whose title contains the title filter and whose title or
+     * description contains the text filter (both case-insensitive), as far as the index knows.
+     *
+     * @param title the title filter (optional)
+     * @param text the title or description filter (optional)
+     * @return the candidates, or empty if SQL has to evaluate the filters on its own
+     */
+    public Optional<SearchCandidates> findCandidates(String title, String text) {
+        boolean hasTitle = title != null && !title.isEmpty();
+        boolean hasText = text != null && !text.isEmpty();
+        if (!hasTitle && !hasText) {
+            return Optional.empty();
+        }
+        if (!ready) {
+            fallbacks.increment();
+            return Optional.empty();
+        }
+        Set<Long> result;
+        lock.readLock().lock();
+        try {
+            result = hasTitle ? match(normalize(title), false) : null;
+            if (hasText) {
+                Set<Long> textMatches = match(normalize(text), true);
+                if (result == null) {
+                    result = textMatches;
+                } else {
+                    result.retainAll(textMatches);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (result.size() > maxCandidates) {
+            fallbacks.increment();
+            return Optional.empty();
+        }
+        (result.isEmpty() ? misses : hits).increment();
+        return Optional.of(new SearchCandidates(result, uncheckedSince));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Applies keyset batches of card texts, skipping the cards written by this instance since the
+     * load started: the live write is newer than the row read here.
+     *
+     * @param reader reads the batch after the given ID
+     */
+    private synchronized void load(LongFunction<List<CardSearchView>> reader) {
+        lock.writeLock().lock();
+        try {
+            writtenDuringLoad = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            long lastId = 0L;
+            List<CardSearchView> batch;
+            do {
+                batch = reader.apply(lastId);
+                lock.writeLock().lock();
+                try {
+                    for (CardSearchView view : batch) {
+                        if (!writtenDuringLoad.contains(view.getId())) {
+                            put(view.getId(), view.getTitle(), view.getDescription());
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == batchSize);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                writtenDuringLoad = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void written(Long id) {
+        if (writtenDuringLoad != null) {
+            writtenDuringLoad.add(id);
+        }
+    }
+
+    private Set<Long> match(String query, boolean includeDescription) {
+        Set<Long> candidates;
+        if (query.length() < GRAM) {
+            // Too short for a trigram lookup: scan the in-memory documents instead of the table
+            candidates = documents.keySet();
+        } else {
+            candidates = intersect(titlePostings, query);
+            if (includeDescription) {
+                candidates = new HashSet<>(candidates);
+                candidates.addAll(intersect(descriptionPostings, query));
+            }
+        }
+        Set<Long> matches = new HashSet<>();
+        for (Long id : candidates) {
+            IndexedCard card = documents.get(id);
+            if (card != null && card.matches(query, includeDescription)) {
+                matches.add(id);
+            }
+        }
+        return matches;
+    }
+
+    private static Set<Long> intersect(Map<String, Set<Long>> postings, String query) {
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : trigrams(query)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return Collections.emptySet();
+            }
+            lists.add(ids);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private void put(Long id, String title, String description) {
+        delete(id);
+        IndexedCard card = new IndexedCard(normalize(title), normalize(description));
+        documents.put(id, card);
+        addPostings(titlePostings, card.title(), id);
+        addPostings(descriptionPostings, card.description(), id);
+    }
+
+    private void delete(Long id) {
+        IndexedCard card = documents.remove(id);
+        if (card != null) {
+            removePostings(titlePostings, card.title(), id);
+            removePostings(descriptionPostings, card.description(), id);
+        }
+    }
+
+    private static void addPostings(Map<String, Set<Long>> postings, String value, Long id) {
+        for (String gram : trigrams(value)) {
+            postings.computeIfAbsent(gram, key -> new HashSet<>()).add(id);
+        }
+    }
+
+    private static void removePostings(Map<String, Set<Long>> postings, String value, Long id) {
+        for (String gram : trigrams(value)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static Set<String> trigrams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private double documentCount() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private double trigramCount() {
+        lock.readLock().lock();
+        try {
+            return titlePostings.size() + descriptionPostings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cards that may match a search
+     *
+     * @param ids            the cards the index matched
+     * @param uncheckedSince cards updated at or after this time may be missing from the index
+     */
+    public record SearchCandidates(Set<Long> ids, LocalDateTime uncheckedSince) {
+    }
+
+    private record IndexedCard(String title, String description) {
+
+        boolean matches(String query, boolean includeDescription) {
+            return title.contains(query) || (includeDescription && description.contains(query));
+        }
+    }
+}
@@ -2,10 +2,16 @@ package teams.teams.service;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+import teams.teams.api.model.CardBatchResponseDto;
+import teams.teams.api.model.CardBatchUpdateDto;
 import teams.teams.api.model.CardRequestDto;
 import teams.teams.api.model.CardResponseDto;
+import teams.teams.repository.projection.CardRow;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ICardsService {
 
@@ -25,6 +31,15 @@ public interface ICardsService {
      */
     CardResponseDto getCardById(Long cardId);
 
+    /**
+     * Returns the current version of a card, from memory when it is known
+     *
+     * @param cardId the ID of the card
+     * @return the version of the card
+     * @throws teams.teams.exception.ResourceNotFoundException if the card does not exist
+     */
+    long getCardVersion(Long cardId);
+
     /**
      * Retrieves a card by users ID
      *
@@ -33,6 +48,16 @@ public interface ICardsService {
      */
     List<CardResponseDto> getCardsByUserId(Long userId);
 
+    /**
+     * Retrieves a bounded window of cards owned by the user, newest first
+     *
+     * @param userId the ID of the card owner
+     * @param cursor the cursor of the previous window, empty for the first one
+     * @param size the maximum number of cards to return
+     * @return a window of cards with the position of the next one
+     */
+    Window<CardResponseDto> getCardsByUserId(Long userId, String cursor, int size);
+
     /**
      * Retrieves a card by users ID
      *
@@ -41,6 +66,16 @@ public interface ICardsService {
      */
     List<CardResponseDto> getCardsByTeamId(Long teamId);
 
+    /**
+     * Retrieves a bounded window of cards of the team, newest first
+     *
+     * @param teamId the ID of the team
+     * @param cursor the cursor of the previous window, empty for the first one
+     * @param size the maximum number of cards to return
+     * @return a window of cards with the position of the next one
+     */
+    Window<CardResponseDto> getCardsByTeamId(Long teamId, String cursor, int size);
+
     /**
      * Updates an existing card
      *
@@ -50,6 +85,22 @@ public interface ICardsService {
      */
     CardResponseDto updateCard(Long cardId, CardRequestDto cardRequestDto);
 
+    /**
+     * Creates many cards with set-based owner and team checks and batched inserts
+     *
+     * @param cardRequestDtos the cards to create
+     * @return the outcome of every item; items with an unknown owner or team are skipped
+     */
+    CardBatchResponseDto createCards(List<CardRequestDto> cardRequestDtos);
+
+    /**
+     * Updates many cards with set-based checks and batched updates
+     *
+     * @param cardUpdateDtos the cards to update with their IDs
+     * @return the outcome of every item; items with an unknown card, owner or team are skipped
+     */
+    CardBatchResponseDto updateCards(List<CardBatchUpdateDto> cardUpdateDtos);
+
     /**
      * Deletes a card by its ID
      *
@@ -62,18 +113,56 @@ public interface ICardsService {
      * Retrieves all cards with pagination
      *
      * @param pageable pagination information
-     * @return a page of cards
+     * @return a page of card rows
      */
-    Page<CardResponseDto> getAllCards(Pageable pageable);
+    Page<CardRow> getAllCards(Pageable pageable);
 
     /**
-     * Retrieves cards filtered by ownerId, title and/or teamId with pagination
+     * Retrieves cards filtered by ownerId, title, search text and/or teamId with pagination
      *
      * @param ownerId the owner ID to filter by (optional)
      * @param title the title to filter by (optional)
+     * @param search the text to find in the title or description (optional)
      * @param teamId the team ID to filter by (optional)
      * @param pageable pagination information
-     * @return a page of filtered cards
+     * @return a page of filtered card rows
+     */
+    Page<CardRow> getFilteredCards(Long ownerId, String title, String search, Long teamId, Pageable pageable);
+
+    /**
+     * Retrieves cards filtered by ownerId, title, search text and/or teamId without counting them
+     *
+     * @param ownerId the owner ID to filter by (optional)
+     * @param title the title to filter by (optional)
+     * @param search the text to find in the title or description (optional)
+     * @param teamId the team ID to filter by (optional)
+     * @param pageable pagination information
+     * @return a slice of filtered card rows telling whether a next page exists
+     */
+    Slice<CardRow> getFilteredCardsSlice(Long ownerId, String title, String search, Long teamId,
+                                         Pageable pageable);
+
+    /**
+     * Retrieves cards filtered by ownerId, title and/or teamId using keyset pagination on (updatedAt, id).
+     * Does not issue a count query and does not degrade with the page depth.
+     *
+     * @param ownerId the owner ID to filter by (optional)
+     * @param title the title to filter by (optional)
+     * @param search the text to find in the title or description (optional)
+     * @param teamId the team ID to filter by (optional)
+     * @param cursor the cursor of the previous window, empty for the first one
+     * @param size the maximum number of cards to return
+     * @return a window of card rows with the position of the next one
+     */
+    Window<CardRow> getFilteredCards(Long ownerId, String title, String search, Long teamId,
+                                     String cursor, int size);
+
+    /**
+     * Streams all cards matching the filters, in ID order, from a database cursor
+     *
+     * @param ownerId the owner ID to filter by (optional)
+     * @param teamId the team ID to filter by (optional)
+     * @param consumer receives every card as it is read
      */
-    Page<CardResponseDto> getFilteredCards(Long ownerId, String title, Long teamId, Pageable pageable);
+    void exportCards(Long ownerId, Long teamId, Consumer<CardRow> consumer);
 }
@@ -2,10 +2,13 @@ package teams.teams.service;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import teams.teams.api.model.*;
 import teams.teams.entity.Team;
+import teams.teams.repository.projection.TeamMemberRow;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ITeamService {
 
@@ -14,6 +17,11 @@ public interface ITeamService {
      */
     Page<TeamResponseDto> listTeams(Pageable pageable, Long userId);
 
+    /**
+     * Same as {@link #listTeams(Pageable, Long)} without counting the teams.
+     */
+    Slice<TeamResponseDto> listTeamsSlice(Pageable pageable, Long userId);
+
     /**
      * Processes a request from a user to join a team/project
      * 
@@ -47,6 +55,25 @@ public interface ITeamService {
      */
     TeamMemberResponseDto updateMemberStatus(Long cardId, Long userId, String status);
 
+    /**
+     * Invites many users to a team/project with set-based checks and batched inserts
+     *
+     * @param cardId the ID of the card/project
+     * @param userIds the IDs of the users to invite
+     * @return the outcome for every user, in request order
+     */
+    TeamMemberBatchResponseDto inviteToTeamBatch(Long cardId, List<Long> userIds);
+
+    /**
+     * Accepts or rejects the memberships of many users with a single update
+     *
+     * @param cardId the ID of the card/project
+     * @param userIds the IDs of the users
+     * @param status the new status (JOINED/REJECTED)
+     * @return the outcome for every user, in request order
+     */
+    TeamMemberBatchResponseDto updateMemberStatusBatch(Long cardId, List<Long> userIds, String status);
+
     /**
      * Removes a user from a team/project
      * 
@@ -66,17 +93,46 @@ public interface ITeamService {
     Page<TeamMemberResponseDto> getTeamMembers(Long cardId, Pageable pageable);
 
     /**
-     * Gets all team members for a specific project
+     * Same as {@link #getTeamMembers(Long, Pageable)} without counting the members.
+     */
+    Slice<TeamMemberResponseDto> getTeamMembersSlice(Long cardId, Pageable pageable);
+
+    /**
+     * Gets the teams a user has joined or been invited to ("my teams")
      *
-     * @param cardId the ID of the card/project
-     * @return list of team members
+     * @param userId the ID of the user
+     * @return team summaries ordered by team ID, without members
      */
-    List<TeamMemberResponseDto> getTeamsByMember(Long userId);
+    List<TeamResponseDto> getTeamsByMember(Long userId);
 
     TeamResponseDto fetchTeam(Long teamId);
 
+    /**
+     * Returns the current version of a team, from memory when it is known
+     *
+     * @param teamId the ID of the team
+     * @return the version of the team
+     * @throws teams.teams.exception.ResourceNotFoundException if the team does not exist
+     */
+    long getTeamVersion(Long teamId);
+
     /**
      * Gets all team members for a team with pagination (by team ID).
      */
     Page<TeamMemberResponseDto> getTeamMembersByTeamId(Long teamId, Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * Same as {@link #getTeamMembersByTeamId(Long, Pageable)} without counting the members.
+     */
+    Slice<TeamMemberResponseDto> getTeamMembersByTeamIdSlice(Long teamId, Pageable pageable);
+
+    /**
+     * Streams all members of a team, in ID order, from a database cursor. The team is checked before
+     * the first member is handed over, so a missing team fails before anything is written.
+     *
+     * @param teamId   the team ID
+     * @param consumer receives every member as it is read
+     * @throws teams.teams.exception.ResourceNotFoundException if the team does not exist
+     */
+    void exportTeamMembers(Long teamId, Consumer<TeamMemberRow> consumer);
+}
@@ -0,0 +1,189 @@
+package teams.teams.service.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import teams.teams.dto.UserDto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coalesces concurrent single-user lookups into batch calls to the users service.
+ * <p>
+ * The first lookup opens a short collection window; every lookup made during that window
+ * (or until the batch is full) is resolved by a single {@code /api/v1/fetchBatch} request.
+ * Lookups for the same ID in one window share the same result.
+ */
+@Component
+public class CoalescingUsersClient {
+
+    private final UsersFeignClient usersFeignClient;
+    private final long windowMillis;
+    private final int maxBatchSize;
+    private final long timeoutMillis;
+    private final ScheduledExecutorService executor;
+    private final ExecutorService loadExecutor;
+
+    private final Object lock = new Object();
+    private Map<Long, CompletableFuture<Optional<UserDto>>> pending = new HashMap<>();
+
+    private final Counter batchCalls;
+    private final DistributionSummary batchSizes;
+
+    public CoalescingUsersClient(UsersFeignClient usersFeignClient, MeterRegistry meterRegistry,
+                                 @Value("${users.client.batch-window-ms:5}") long windowMillis,
+                                 @Value("${users.client.max-batch-size:100}") int maxBatchSize,
+                                 @Value("${users.client.timeout-ms:5000}") long timeoutMillis,
+                                 @Value("${users.client.threads:4}") int threads,
+                                 @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.usersFeignClient = usersFeignClient;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "users-batch-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // In virtual-thread mode a slow users service no longer ties up the few batch threads
+        this.loadExecutor = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("users-batch-virtual-", 1).factory())
+                : executor;
+        this.batchCalls = Counter.builder("users.client.batch.calls")
+                .description("Batch requests sent to the users service")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("users.client.batch.size")
+                .description("User IDs resolved per batch request")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Looks up a user, waiting for the batch it was coalesced into
+     *
+     * @param userId the ID of the user
+     * @return the user, or empty if the users service does not know the ID
+     */
+    public Optional<UserDto> fetchUser(Long userId) {
+        CompletableFuture<Optional<UserDto>> future = enqueue(userId);
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Could not fetch user with id " + userId, exception.getCause());
+        } catch (TimeoutException exception) {
+            throw new RuntimeException("Timed out fetching user with id " + userId, exception);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while fetching user with id " + userId, exception);
+        }
+    }
+
+    /**
+     * Looks up many users directly, in batches of at most {@code users.client.max-batch-size} IDs
+     *
+     * @param userIds the IDs of the users
+     * @return the users the users service knows; unknown IDs are omitted
+     */
+    public List<UserDto> fetchUsers(Collection<Long> userIds) {
+        List<Long> ids = new ArrayList<>(userIds);
+        List<UserDto> users = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += maxBatchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + maxBatchSize, ids.size()));
+            batchCalls.increment();
+            batchSizes.record(chunk.size());
+            List<UserDto> found = usersFeignClient.fetchUsers(chunk).getBody();
+            if (found != null) {
+                users.addAll(found);
+            }
+        }
+        return users;
+    }
+
+    private CompletableFuture<Optional<UserDto>> enqueue(Long userId) {
+        Map<Long, CompletableFuture<Optional<UserDto>>> fullBatch = null;
+        CompletableFuture<Optional<UserDto>> future;
+        synchronized (lock) {
+            future = pending.get(userId);
+            if (future != null) {
+                return future;
+            }
+            future = new CompletableFuture<>();
+            pending.put(userId, future);
+            if (pending.size() >= maxBatchSize) {
+                fullBatch = drain();
+            } else if (pending.size() == 1) {
+                Map<Long, CompletableFuture<Optional<UserDto>>> window = pending;
+                executor.schedule(() -> flush(window), windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (fullBatch != null) {
+            Map<Long, CompletableFuture<Optional<UserDto>>> batch = fullBatch;
+            loadExecutor.execute(() -> load(batch));
+        }
+        return future;
+    }
+
+    /**
+     * Flushes the window opened by the scheduled task, unless it was already flushed because it filled up
+     */
+    private void flush(Map<Long, CompletableFuture<Optional<UserDto>>> window) {
+        Map<Long, CompletableFuture<Optional<UserDto>>> batch;
+        synchronized (lock) {
+            if (pending != window) {
+                return;
+            }
+            batch = drain();
+        }
+        if (loadExecutor == executor) {
+            load(batch);
+        } else {
+            loadExecutor.execute(() -> load(batch));
+        }
+    }
+
+    private Map<Long, CompletableFuture<Optional<UserDto>>> drain() {
+        Map<Long, CompletableFuture<Optional<UserDto>>> batch = pending;
+        pending = new HashMap<>();
+        return batch;
+    }
+
+    private void load(Map<Long, CompletableFuture<Optional<UserDto>>> batch) {
+        batchCalls.increment();
+        batchSizes.record(batch.size());
+        try {
+            List<UserDto> users = usersFeignClient.fetchUsers(new ArrayList<>(batch.keySet())).getBody();
+            Map<Long, UserDto> usersById = new HashMap<>();
+            if (users != null) {
+                users.forEach(user -> usersById.put(user.getId(), user));
+            }
+            batch.forEach((id, future) -> future.complete(Optional.ofNullable(usersById.get(id))));
+        } catch (RuntimeException exception) {
+            batch.values().forEach(future -> future.completeExceptionally(exception));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        loadExecutor.shutdown();
+    }
+}
@@ -6,6 +6,8 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import teams.teams.dto.UserDto;
 
+import java.util.List;
+
 @FeignClient("users")
 public interface UsersFeignClient {
 
@@ -13,4 +15,8 @@ public interface UsersFeignClient {
     ResponseEntity<UserDto> fetchUser(
             @RequestParam Long id);
 
+    @GetMapping("/api/v1/fetchBatch")
+    ResponseEntity<List<UserDto>> fetchUsers(
+            @RequestParam List<Long> ids);
+
 }
@@ -0,0 +1,135 @@
+package teams.teams.service.concurrent;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent blocking lookups of one request in parallel, so the request waits for the
+ * slowest of them instead of their sum.
+ * <p>
+ * Follows the shape of {@code StructuredTaskScope.ShutdownOnFailure} (still a preview API in
+ * Java 21): subtasks are forked inside a scope, {@link Scope#join()} waits for all of them up to
+ * a shared deadline of {@code cards.fan-out.timeout-ms}, the first failure cancels the rest and
+ * is rethrown as is, and closing the scope cancels whatever is still running.
+ * <p>
+ * Subtasks run on virtual threads without the caller's transaction or persistence context, so
+ * entities they return are detached.
+ */
+@Component
+public class StructuredFanOut {
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("fan-out-", 1).factory());
+    private final long timeoutMillis;
+
+    public StructuredFanOut(@Value("${cards.fan-out.timeout-ms:5000}") long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Opens a scope whose deadline starts now
+     *
+     * @return the scope, to be used in a try-with-resources block
+     */
+    public Scope open() {
+        return new Scope(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public final class Scope implements AutoCloseable {
+
+        private final long deadlineNanos;
+        private final List<Future<?>> subtasks = new ArrayList<>();
+        private final List<CompletableFuture<?>> results = new ArrayList<>();
+        private final CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+
+        private Scope(long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * Starts a subtask
+         *
+         * @param task the lookup to run
+         * @return supplies the result once {@link #join()} returned
+         */
+        public <T> Supplier<T> fork(Callable<T> task) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            Future<?> subtask = executor.submit(() -> {
+                try {
+                    result.complete(task.call());
+                } catch (Throwable throwable) {
+                    result.completeExceptionally(throwable);
+                    firstFailure.completeExceptionally(throwable);
+                }
+            });
+            subtasks.add(subtask);
+            results.add(result);
+            return result::join;
+        }
+
+        /**
+         * Waits until every subtask completed, one failed or the deadline passed. Unfinished
+         * subtasks are cancelled in the last two cases.
+         *
+         * @throws RuntimeException the first failure of a subtask, or a timeout
+         */
+        public void join() {
+            CompletableFuture<Void> all = CompletableFuture.allOf(results.toArray(CompletableFuture[]::new));
+            try {
+                CompletableFuture.anyOf(all, firstFailure)
+                        .get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException exception) {
+                cancelAll();
+                throw rethrow(exception.getCause());
+            } catch (TimeoutException exception) {
+                cancelAll();
+                throw new RuntimeException("Timed out waiting for " + subtasks.size() + " parallel lookups", exception);
+            } catch (InterruptedException exception) {
+                cancelAll();
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for parallel lookups", exception);
+            }
+        }
+
+        @Override
+        public void close() {
+            cancelAll();
+        }
+
+        private void cancelAll() {
+            subtasks.forEach(subtask -> subtask.cancel(true));
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new RuntimeException("Parallel lookup failed", cause);
+    }
+}
@@ -1,48 +1,101 @@
 package teams.teams.service.impl;
 
+import com.teamup.commons.cache.EntityVersionMap;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+import teams.teams.api.model.CardBatchItemResultDto;
+import teams.teams.api.model.CardBatchResponseDto;
+import teams.teams.api.model.CardBatchUpdateDto;
 import teams.teams.api.model.CardRequestDto;
 import teams.teams.api.model.CardResponseDto;
-import teams.teams.dto.UserDto;
+import teams.teams.cache.ApproximateCountCache;
+import teams.teams.constants.CardConstants;
+import teams.teams.constants.TeamEventConstants;
+import teams.teams.directory.UserVerifier;
+import teams.teams.dto.CardEventDto;
 import teams.teams.entity.TeamMember;
 import teams.teams.mapper.CardMapper;
+import teams.teams.outbox.TeamEventOutbox;
+import teams.teams.repository.CardBatchRepository;
+import teams.teams.repository.CardRowRepository;
 import teams.teams.repository.CardsRepository;
+import teams.teams.repository.ExportRepository;
 import teams.teams.service.ICardsService;
-import teams.teams.service.client.UsersFeignClient;
+import teams.teams.service.concurrent.StructuredFanOut;
 import teams.teams.specification.CardSpecification;
 import teams.teams.entity.Card;
 import teams.teams.entity.Team;
 import teams.teams.exception.ResourceNotFoundException;
 import teams.teams.repository.TeamRepository;
+import teams.teams.repository.projection.CardAuditView;
+import teams.teams.repository.projection.CardRow;
+import teams.teams.search.CardSearchIndex;
+import teams.teams.search.CardSearchIndex.SearchCandidates;
+import teams.teams.util.CursorUtils;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 public class CardsServiceImpl implements ICardsService {
 
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Order.desc("updatedAt"), Sort.Order.desc("id"));
+    private static final String CARDS_COUNT_KEY = "cards";
+
     private final CardsRepository cardsRepository;
 
-    private final UsersFeignClient usersFeignClient;
+    private final UserVerifier userVerifier;
     private final TeamRepository teamRepository;
+    private final CardSearchIndex cardSearchIndex;
+    private final ApproximateCountCache approximateCountCache;
+    private final EntityVersionMap entityVersionMap;
+    private final StructuredFanOut structuredFanOut;
+    private final CardBatchRepository cardBatchRepository;
+    private final CardRowRepository cardRowRepository;
+    private final ExportRepository exportRepository;
+    private final TeamEventOutbox teamEventOutbox;
+    private final TransactionOperations transactionOperations;
 
     @Override
     public CardResponseDto createCard(CardRequestDto cardRequestDto) {
-        ResponseEntity<UserDto> userDtoResponseEntity = usersFeignClient.fetchUser(cardRequestDto.getOwnerId());
-        if (userDtoResponseEntity.getStatusCode().is4xxClientError()) {
-            throw new ResourceNotFoundException("User", "id", cardRequestDto.getOwnerId().toString());
+        Team team;
+        try (StructuredFanOut.Scope scope = structuredFanOut.open()) {
+            scope.fork(() -> {
+                userVerifier.requireUser(cardRequestDto.getOwnerId());
+                return null;
+            });
+            Supplier<Team> teamLookup = scope.fork(() -> findTeam(cardRequestDto.getTeamId()));
+            scope.join();
+            team = teamLookup.get();
         }
-        Team team = teamRepository.findById(cardRequestDto.getTeamId())
-                .orElseThrow(() -> new ResourceNotFoundException("Team", "id", cardRequestDto.getTeamId().toString()));
         // add logic whether user is member of team or not
         Card card = CardMapper.mapToCard(cardRequestDto, new Card(), team);
-        Card savedCard = cardsRepository.save(card);
+        // The card and its event commit together; the lookups above run before the transaction
+        Card savedCard = transactionOperations.execute(status -> {
+            Card saved = cardsRepository.save(card);
+            teamEventOutbox.add(TeamEventConstants.CARD_CREATED, team.getId(), CardMapper.mapToCardEventDto(saved));
+            return saved;
+        });
+        cardSearchIndex.index(savedCard);
         return CardMapper.mapToCardResponseDto(savedCard);
     }
 
@@ -51,20 +104,33 @@ public class CardsServiceImpl implements ICardsService {
         Card card = cardsRepository.findById(cardId)
                 .orElseThrow(() -> new ResourceNotFoundException("Card", "id",
                         cardId.toString()));
+        entityVersionMap.record(CardConstants.VERSION_TYPE, cardId, card.getVersion());
         return CardMapper.mapToCardResponseDto(card);
     }
 
     @Override
+    public long getCardVersion(Long cardId) {
+        return entityVersionMap.getVersion(CardConstants.VERSION_TYPE, cardId, () -> cardsRepository.findVersionById(cardId)
+                .orElseThrow(() -> new ResourceNotFoundException("Card", "id", cardId.toString())));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<CardResponseDto> getCardsByUserId(Long userId) {
-        ResponseEntity<UserDto> userDtoResponseEntity = usersFeignClient.fetchUser(userId);
-        if (userDtoResponseEntity.getStatusCode().is4xxClientError()) {
-            throw new ResourceNotFoundException("User", "id", userId.toString());
-        }
+        userVerifier.requireUser(userId);
         List<Card> cards = cardsRepository.findByOwnerId(userId);
         return CardMapper.mapToCardsResponseDto(cards);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Window<CardResponseDto> getCardsByUserId(Long userId, String cursor, int size) {
+        userVerifier.requireUser(userId);
+        return scrollCards(CardSpecification.hasOwnerId(userId), cursor, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<CardResponseDto> getCardsByTeamId(Long teamId) {
         teamRepository.findById(teamId)
                 .orElseThrow(() -> new ResourceNotFoundException("Team", "id", teamId.toString()));
@@ -72,20 +138,167 @@ public class CardsServiceImpl implements ICardsService {
         return CardMapper.mapToCardsResponseDto(cards);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Window<CardResponseDto> getCardsByTeamId(Long teamId, String cursor, int size) {
+        if (!teamRepository.existsById(teamId)) {
+            throw new ResourceNotFoundException("Team", "id", teamId.toString());
+        }
+        return scrollCards(CardSpecification.hasTeamId(teamId), cursor, size);
+    }
+
     @Override
     public CardResponseDto updateCard(Long cardId,
                                       CardRequestDto cardRequestDto) {
-        Card existingCard = cardsRepository.findById(cardId)
-                .orElseThrow(() -> new ResourceNotFoundException("Card", "id",
-                        cardId.toString()));
-
-        Team team = teamRepository.findById(cardRequestDto.getTeamId())
-                .orElseThrow(() -> new ResourceNotFoundException("Team", "id", cardRequestDto.getTeamId().toString()));
-        Card updatedCard = CardMapper.mapToCard(cardRequestDto, existingCard, team);
-        Card savedCard = cardsRepository.save(updatedCard);
+        Card existingCard;
+        Team team;
+        try (StructuredFanOut.Scope scope = structuredFanOut.open()) {
+            Supplier<Card> cardLookup = scope.fork(() -> cardsRepository.findById(cardId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Card", "id",
+                            cardId.toString())));
+            Supplier<Team> teamLookup = scope.fork(() -> findTeam(cardRequestDto.getTeamId()));
+            scope.join();
+            existingCard = cardLookup.get();
+            team = teamLookup.get();
+        }
+        Card card = CardMapper.mapToCard(cardRequestDto, existingCard, team);
+        // The card was read outside the transaction: the merge checks its version, so a card changed
+        // since the lookup fails with a conflict instead of being overwritten
+        Card savedCard = transactionOperations.execute(status -> {
+            Card saved = cardsRepository.save(card);
+            teamEventOutbox.add(TeamEventConstants.CARD_UPDATED, team.getId(), CardMapper.mapToCardEventDto(saved));
+            return saved;
+        });
+        cardSearchIndex.index(savedCard);
+        entityVersionMap.evict(CardConstants.VERSION_TYPE, cardId);
         return CardMapper.mapToCardResponseDto(savedCard);
     }
 
+    @Override
+    @Transactional
+    public CardBatchResponseDto createCards(List<CardRequestDto> cardRequestDtos) {
+        BatchReferences references = loadReferences(
+                cardRequestDtos.stream().map(CardRequestDto::getOwnerId).toList(),
+                cardRequestDtos.stream().map(CardRequestDto::getTeamId).toList());
+
+        List<CardBatchItemResultDto> results = new ArrayList<>(cardRequestDtos.size());
+        List<Integer> indexes = new ArrayList<>();
+        List<Card> cards = new ArrayList<>();
+        for (int i = 0; i < cardRequestDtos.size(); i++) {
+            CardRequestDto cardRequestDto = cardRequestDtos.get(i);
+            String failure = references.check(cardRequestDto.getOwnerId(), cardRequestDto.getTeamId());
+            if (failure != null) {
+                results.add(CardMapper.failedCardBatchItem(i, null, failure));
+                continue;
+            }
+            indexes.add(i);
+            cards.add(CardMapper.mapToCard(cardRequestDto, new Card(), references.teams().get(cardRequestDto.getTeamId())));
+        }
+
+        cardBatchRepository.insertAll(cards);
+        teamEventOutbox.addAll(TeamEventConstants.CARD_CREATED, cards.stream().map(CardMapper::mapToCardEventDto).toList(),
+                CardEventDto::teamId);
+        for (int i = 0; i < cards.size(); i++) {
+            cardSearchIndex.index(cards.get(i));
+            results.add(CardMapper.mapToCardBatchItemResultDto(indexes.get(i), cards.get(i), CardConstants.BATCH_CREATED));
+        }
+        return CardMapper.mapToCardBatchResponseDto(results);
+    }
+
+    @Override
+    @Transactional
+    public CardBatchResponseDto updateCards(List<CardBatchUpdateDto> cardUpdateDtos) {
+        BatchReferences references = loadReferences(
+                cardUpdateDtos.stream().map(CardBatchUpdateDto::getOwnerId).toList(),
+                cardUpdateDtos.stream().map(CardBatchUpdateDto::getTeamId).toList());
+        Map<Long, CardAuditView> existingCards = new HashMap<>();
+        cardsRepository.findAuditViewsByIdIn(cardUpdateDtos.stream().map(CardBatchUpdateDto::getId)
+                        .filter(Objects::nonNull).collect(Collectors.toSet()))
+                .forEach(view -> existingCards.put(view.getId(), view));
+
+        List<CardBatchItemResultDto> results = new ArrayList<>(cardUpdateDtos.size());
+        Set<Long> seenIds = new HashSet<>();
+        List<Integer> indexes = new ArrayList<>();
+        List<Card> cards = new ArrayList<>();
+        for (int i = 0; i < cardUpdateDtos.size(); i++) {
+            CardBatchUpdateDto updateDto = cardUpdateDtos.get(i);
+            CardAuditView existing = existingCards.get(updateDto.getId());
+            String failure = updateDto.getId() == null ? "id is required"
+                    : existing == null
+                    ? new ResourceNotFoundException("Card", "id", updateDto.getId().toString()).getMessage()
+                    : references.check(updateDto.getOwnerId(), updateDto.getTeamId());
+            if (failure == null && !seenIds.add(updateDto.getId())) {
+                failure = "Card " + updateDto.getId() + " appears more than once in the batch";
+            }
+            if (failure != null) {
+                results.add(CardMapper.failedCardBatchItem(i, updateDto.getId(), failure));
+                continue;
+            }
+            Card card = new Card();
+            card.setId(existing.getId());
+            card.setCreatedAt(existing.getCreatedAt());
+            card.setCreatedBy(existing.getCreatedBy());
+            indexes.add(i);
+            cards.add(CardMapper.mapToCard(updateDto, card, references.teams().get(updateDto.getTeamId())));
+        }
+
+        boolean[] updated = cardBatchRepository.updateAll(cards);
+        List<CardEventDto> events = new ArrayList<>();
+        for (int i = 0; i < cards.size(); i++) {
+            Card card = cards.get(i);
+            if (!updated[i]) {
+                // Deleted between the existence check and the update
+                results.add(CardMapper.failedCardBatchItem(indexes.get(i), card.getId(),
+                        new ResourceNotFoundException("Card", "id", card.getId().toString()).getMessage()));
+                continue;
+            }
+            events.add(CardMapper.mapToCardEventDto(card));
+            cardSearchIndex.index(card);
+            entityVersionMap.evict(CardConstants.VERSION_TYPE, card.getId());
+            results.add(CardMapper.mapToCardBatchItemResultDto(indexes.get(i), card, CardConstants.BATCH_UPDATED));
+        }
+        teamEventOutbox.addAll(TeamEventConstants.CARD_UPDATED, events, CardEventDto::teamId);
+        return CardMapper.mapToCardBatchResponseDto(results);
+    }
+
+    /**
+     * Checks all owners and loads all teams of a bulk request, in parallel and with one query or
+     * batch call each. Missing IDs are skipped here and reported by {@link BatchReferences#check}.
+     */
+    private BatchReferences loadReferences(List<Long> ownerIds, List<Long> teamIds) {
+        Set<Long> owners = ownerIds.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<Long> teamIdSet = teamIds.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        try (StructuredFanOut.Scope scope = structuredFanOut.open()) {
+            Supplier<Set<Long>> unknownOwners = scope.fork(() -> userVerifier.findUnknownUsers(owners));
+            Supplier<Map<Long, Team>> teams = scope.fork(() -> teamRepository.findAllById(teamIdSet).stream()
+                    .collect(Collectors.toMap(Team::getId, Function.identity())));
+            scope.join();
+            return new BatchReferences(unknownOwners.get(), teams.get());
+        }
+    }
+
+    private record BatchReferences(Set<Long> unknownOwners, Map<Long, Team> teams) {
+
+        /**
+         * @return why an item with this owner and team cannot be written, or null when it can
+         */
+        String check(Long ownerId, Long teamId) {
+            if (ownerId == null) {
+                return "ownerId is required";
+            }
+            if (teamId == null) {
+                return "teamId is required";
+            }
+            if (unknownOwners.contains(ownerId)) {
+                return new ResourceNotFoundException("User", "id", ownerId.toString()).getMessage();
+            }
+            if (!teams.containsKey(teamId)) {
+                return new ResourceNotFoundException("Team", "id", teamId.toString()).getMessage();
+            }
+            return null;
+        }
+    }
+
     @Override
     @Transactional
     public boolean deleteCard(Long cardId) {
@@ -94,25 +307,94 @@ public class CardsServiceImpl implements ICardsService {
                         cardId.toString()));
 
         cardsRepository.delete(card);
+        teamEventOutbox.add(TeamEventConstants.CARD_DELETED, card.getTeam().getId(), CardMapper.mapToCardEventDto(card));
+        cardSearchIndex.remove(cardId);
+        entityVersionMap.evict(CardConstants.VERSION_TYPE, cardId);
         return true;
     }
 
     @Override
-    public Page<CardResponseDto> getAllCards(Pageable pageable) {
-        Page<Card> cardsPage = cardsRepository.findAll(pageable);
-        return cardsPage.map(CardMapper::mapToCardResponseDto);
+    @Transactional(readOnly = true)
+    public Page<CardRow> getAllCards(Pageable pageable) {
+        Slice<CardRow> rows = cardRowRepository.findSlice(null, pageable);
+        return approximateCountCache.toPage(rows, CARDS_COUNT_KEY, cardsRepository::count);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<CardRow> getFilteredCards(Long ownerId, String title, String search, Long teamId,
+                                          Pageable pageable) {
+        Optional<SearchCandidates> candidates = cardSearchIndex.findCandidates(title, search);
+        Specification<Card> filteredSpec = filterSpecification(ownerId, title, search, teamId, candidates);
+        Slice<CardRow> filteredRows = cardRowRepository.findSlice(filteredSpec, pageable);
+        String countKey = ApproximateCountCache.key(CARDS_COUNT_KEY, ownerId, title, search, teamId);
+        // Background refreshes resolve the candidates again, so the total follows index updates
+        return approximateCountCache.toPage(filteredRows, countKey, () -> cardsRepository.count(
+                filterSpecification(ownerId, title, search, teamId, cardSearchIndex.findCandidates(title, search))));
     }
 
     @Override
-    public Page<CardResponseDto> getFilteredCards(Long ownerId, String title, Long teamId,
-                                                  Pageable pageable) {
-        Specification<Card> spec = CardSpecification.where(
+    @Transactional(readOnly = true)
+    public Slice<CardRow> getFilteredCardsSlice(Long ownerId, String title, String search, Long teamId,
+                                                Pageable pageable) {
+        Optional<SearchCandidates> candidates = cardSearchIndex.findCandidates(title, search);
+        return cardRowRepository.findSlice(filterSpecification(ownerId, title, search, teamId, candidates), pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Window<CardRow> getFilteredCards(Long ownerId, String title, String search, Long teamId,
+                                            String cursor, int size) {
+        Optional<SearchCandidates> candidates = cardSearchIndex.findCandidates(title, search);
+        int limit = Math.min(Math.max(size, 1), CardConstants.MAX_PAGE_SIZE);
+        return cardRowRepository.scroll(filterSpecification(ownerId, title, search, teamId, candidates),
+                CursorUtils.decode(cursor), limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportCards(Long ownerId, Long teamId, Consumer<CardRow> consumer) {
+        exportRepository.streamCards(ownerId, teamId, consumer);
+    }
+
+    private Team findTeam(Long teamId) {
+        return teamRepository.findById(teamId)
+                .orElseThrow(() -> new ResourceNotFoundException("Team", "id", teamId.toString()));
+    }
+
+    /**
+     * Builds the card filter. When the search index resolved the text filters, its candidates and
+     * the cards updated since it last caught up narrow the rows MySQL checks the LIKE filters on,
+     * so it does not scan the table; the LIKE filters stay, so a stale index cannot return a wrong card.
+     */
+    private Specification<Card> filterSpecification(Long ownerId, String title, String search, Long teamId,
+                                                    Optional<SearchCandidates> candidates) {
+        if (candidates.isPresent()) {
+            return CardSpecification.where(
+                    CardSpecification.hasOwnerId(ownerId),
+                    CardSpecification.idInOrUpdatedSince(candidates.get().ids(), candidates.get().uncheckedSince()),
+                    CardSpecification.titleContains(title),
+                    CardSpecification.textContains(search),
+                    CardSpecification.hasTeamId(teamId)
+            );
+        }
+        return CardSpecification.where(
                 CardSpecification.hasOwnerId(ownerId),
                 CardSpecification.titleContains(title),
+                CardSpecification.textContains(search),
                 CardSpecification.hasTeamId(teamId)
         );
+    }
 
-        Page<Card> filteredCards = cardsRepository.findAll(spec, pageable);
-        return filteredCards.map(CardMapper::mapToCardResponseDto);
+    /**
+     * Seeks past the (updatedAt, id) keyset encoded in the cursor and reads at most size cards.
+     */
+    private Window<CardResponseDto> scrollCards(Specification<Card> spec, String cursor, int size) {
+        int limit = Math.min(Math.max(size, 1), CardConstants.MAX_PAGE_SIZE);
+        Window<Card> window = cardsRepository.findBy(spec, query -> query
+                .sortBy(KEYSET_SORT)
+                .limit(limit)
+                .scroll(CursorUtils.decode(cursor)));
+        return window.map(CardMapper::mapToCardResponseDto);
     }
 }
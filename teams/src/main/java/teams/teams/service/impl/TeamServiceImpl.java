@@ -1,51 +1,72 @@
 package teams.teams.service.impl;
 
+import com.teamup.commons.cache.EntityVersionMap;
 import lombok.AllArgsConstructor;
-import org.springframework.cloud.stream.function.StreamBridge;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import teams.teams.constants.TeamConstants;
+import teams.teams.constants.TeamEventConstants;
 import teams.teams.api.model.*;
+import teams.teams.cache.ApproximateCountCache;
+import teams.teams.cache.TeamMembershipCache;
+import teams.teams.directory.UserVerifier;
+import teams.teams.dto.MemberEventDto;
 import teams.teams.entity.Card;
 import teams.teams.entity.Team;
 import teams.teams.entity.TeamMember;
 import teams.teams.exception.ResourceNotFoundException;
 import teams.teams.mapper.TeamMapper;
+import teams.teams.outbox.TeamEventOutbox;
 import teams.teams.repository.CardsRepository;
+import teams.teams.repository.ExportRepository;
+import teams.teams.repository.TeamMemberBatchRepository;
 import teams.teams.repository.TeamMemberRepository;
 import teams.teams.repository.TeamRepository;
+import teams.teams.repository.projection.MembershipView;
+import teams.teams.repository.projection.TeamMemberRow;
 import teams.teams.service.ITeamService;
+import teams.teams.specification.TeamMemberSpecification;
+import teams.teams.specification.TeamSpecification;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 public class TeamServiceImpl implements ITeamService {
 
     private final TeamMemberRepository teamMemberRepository;
+    private final TeamMemberBatchRepository teamMemberBatchRepository;
     private final TeamRepository teamRepository;
     private final CardsRepository cardsRepository;
+    private final UserVerifier userVerifier;
+    private final TeamMembershipCache teamMembershipCache;
+    private final ApproximateCountCache approximateCountCache;
+    private final EntityVersionMap entityVersionMap;
 
-    private final StreamBridge streamBridge;
+    private final TeamEventOutbox teamEventOutbox;
+    private final ExportRepository exportRepository;
 
     @Override
     @Transactional
     public TeamMemberResponseDto joinTeam(TeamMemberRequestDto teamMemberRequestDto) {
-        teamMemberRepository.findByCardIdAndUserId(teamMemberRequestDto.getCardId(), teamMemberRequestDto.getUserId())
-                .ifPresent(existingMember -> {
-                    throw new IllegalStateException("User is already a member or has a pending invitation");
-                });
+        userVerifier.requireUser(teamMemberRequestDto.getUserId());
         Card card = cardsRepository.findById(teamMemberRequestDto.getCardId()).orElseThrow(() ->
                 new ResourceNotFoundException("Card", "id", teamMemberRequestDto.getCardId().toString()));
-        TeamMember teamMember = TeamMapper.mapToTeamMember(teamMemberRequestDto, card, new TeamMember());
-        teamMember.setRole(TeamConstants.ROLE_PARTICIPANT);
-        teamMember.setStatus(TeamConstants.STATUS_PENDING);
-        TeamMember savedMember = teamMemberRepository.save(teamMember);
-
-        return TeamMapper.mapToTeamMemberResponseDto(savedMember);
+        return addPendingMember(teamMemberRequestDto, card, TeamEventConstants.MEMBER_JOIN_REQUESTED);
     }
 
     @Override
@@ -62,15 +83,8 @@ public class TeamServiceImpl implements ITeamService {
         Card card = cardsRepository.findById(cardId)
                 .orElseThrow(() -> new ResourceNotFoundException("Card", "id", cardId.toString()));
         teamMemberRequestDto.setCardId(cardId);
-        teamMemberRepository.findByCardIdAndUserId(cardId, teamMemberRequestDto.getUserId())
-                .ifPresent(existingMember -> {
-                    throw new IllegalStateException("User is already a member or has a pending invitation");
-                });
-        TeamMember teamMember = TeamMapper.mapToTeamMember(teamMemberRequestDto, card, new TeamMember());
-        teamMember.setRole(TeamConstants.ROLE_PARTICIPANT);
-        teamMember.setStatus(TeamConstants.STATUS_PENDING);
-        TeamMember savedMember = teamMemberRepository.save(teamMember);
-        return TeamMapper.mapToTeamMemberResponseDto(savedMember);
+        userVerifier.requireUser(teamMemberRequestDto.getUserId());
+        return addPendingMember(teamMemberRequestDto, card, TeamEventConstants.MEMBER_INVITED);
     }
 
     @Override
@@ -88,9 +102,126 @@ public class TeamServiceImpl implements ITeamService {
         }
 
         TeamMember updatedMember = teamMemberRepository.save(teamMember);
+        membershipChanged(updatedMember);
+        teamEventOutbox.add(statusEvent(status), updatedMember.getTeamId(),
+                TeamMapper.mapToMemberEventDto(updatedMember));
         return TeamMapper.mapToTeamMemberResponseDto(updatedMember);
     }
 
+    @Override
+    @Transactional
+    public TeamMemberBatchResponseDto inviteToTeamBatch(Long cardId, List<Long> userIds) {
+        Card card = cardsRepository.findById(cardId)
+                .orElseThrow(() -> new ResourceNotFoundException("Card", "id", cardId.toString()));
+        Set<Long> distinctIds = userIds.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<Long> unknownUsers = userVerifier.findUnknownUsers(distinctIds);
+        Map<Long, Long> existingMembers = new HashMap<>();
+        teamMemberRepository.findViewsByCardIdAndUserIdIn(cardId, distinctIds)
+                .forEach(view -> existingMembers.put(view.getUserId(), view.getId()));
+
+        TeamMemberBatchItemResultDto[] results = new TeamMemberBatchItemResultDto[userIds.size()];
+        Set<Long> seenIds = new HashSet<>();
+        List<Integer> indexes = new ArrayList<>();
+        List<TeamMember> teamMembers = new ArrayList<>();
+        for (int i = 0; i < userIds.size(); i++) {
+            Long userId = userIds.get(i);
+            String failure = invitationFailure(userId, seenIds, unknownUsers, existingMembers);
+            if (failure != null) {
+                results[i] = TeamMapper.failedTeamMemberBatchItem(userId, existingMembers.get(userId), failure);
+                continue;
+            }
+            TeamMember teamMember = new TeamMember();
+            teamMember.setCardId(cardId);
+            teamMember.setTeamId(card.getTeam().getId());
+            teamMember.setUserId(userId);
+            teamMember.setRole(TeamConstants.ROLE_PARTICIPANT);
+            teamMember.setStatus(TeamConstants.STATUS_PENDING);
+            indexes.add(i);
+            teamMembers.add(teamMember);
+        }
+
+        boolean[] inserted = teamMemberBatchRepository.insertAllIfAbsent(teamMembers);
+        List<Long> invitedUsers = new ArrayList<>();
+        List<MemberEventDto> events = new ArrayList<>();
+        for (int i = 0; i < teamMembers.size(); i++) {
+            TeamMember teamMember = teamMembers.get(i);
+            if (inserted[i]) {
+                invitedUsers.add(teamMember.getUserId());
+                events.add(TeamMapper.mapToMemberEventDto(teamMember));
+                results[indexes.get(i)] = TeamMapper.mapToTeamMemberBatchItemResultDto(teamMember.getUserId(),
+                        teamMember.getId(), teamMember.getStatus());
+            } else {
+                // Added by a concurrent request after the existence check
+                results[indexes.get(i)] = TeamMapper.failedTeamMemberBatchItem(teamMember.getUserId(), null,
+                        TeamConstants.MESSAGE_ALREADY_MEMBER);
+            }
+        }
+        membershipsChanged(card.getTeam().getId(), invitedUsers);
+        teamEventOutbox.addAll(TeamEventConstants.MEMBER_INVITED, events, MemberEventDto::teamId);
+        return TeamMapper.mapToTeamMemberBatchResponseDto(Arrays.asList(results));
+    }
+
+    @Override
+    @Transactional
+    public TeamMemberBatchResponseDto updateMemberStatusBatch(Long cardId, List<Long> userIds, String status) {
+        if (!TeamConstants.STATUS_JOINED.equals(status) && !TeamConstants.STATUS_REJECTED.equals(status)) {
+            throw new IllegalArgumentException("Invalid status: " + status);
+        }
+        Set<Long> distinctIds = userIds.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, MembershipView> members = new HashMap<>();
+        teamMemberRepository.lockViewsByCardIdAndUserIdIn(cardId, distinctIds)
+                .forEach(view -> members.put(view.getUserId(), view));
+
+        List<TeamMemberBatchItemResultDto> results = new ArrayList<>(userIds.size());
+        Set<Long> seenIds = new HashSet<>();
+        List<Long> memberIds = new ArrayList<>();
+        List<Long> updatedUsers = new ArrayList<>();
+        List<MemberEventDto> events = new ArrayList<>();
+        for (Long userId : userIds) {
+            MembershipView member = members.get(userId);
+            if (member == null) {
+                results.add(TeamMapper.failedTeamMemberBatchItem(userId, null, new ResourceNotFoundException(
+                        "TeamMember", "cardId and userId", cardId + " and " + userId).getMessage()));
+            } else if (!seenIds.add(userId)) {
+                results.add(TeamMapper.failedTeamMemberBatchItem(userId, member.getId(),
+                        "User " + userId + " appears more than once in the batch"));
+            } else {
+                memberIds.add(member.getId());
+                updatedUsers.add(userId);
+                events.add(new MemberEventDto(member.getId(), member.getTeamId(), cardId, userId, status));
+                results.add(TeamMapper.mapToTeamMemberBatchItemResultDto(userId, member.getId(), status));
+            }
+        }
+
+        if (!memberIds.isEmpty()) {
+            // The rows are locked, so every membership found above is updated
+            teamMemberBatchRepository.updateStatus(memberIds, status);
+            membershipsChanged(members.get(updatedUsers.get(0)).getTeamId(), updatedUsers);
+            teamEventOutbox.addAll(statusEvent(status), events, MemberEventDto::teamId);
+        }
+        return TeamMapper.mapToTeamMemberBatchResponseDto(results);
+    }
+
+    /**
+     * @return why the user cannot be invited by a bulk request, or null when they can
+     */
+    private static String invitationFailure(Long userId, Set<Long> seenIds, Set<Long> unknownUsers,
+                                            Map<Long, Long> existingMembers) {
+        if (userId == null) {
+            return "User ID cannot be null";
+        }
+        if (!seenIds.add(userId)) {
+            return "User " + userId + " appears more than once in the batch";
+        }
+        if (unknownUsers.contains(userId)) {
+            return new ResourceNotFoundException("User", "id", userId.toString()).getMessage();
+        }
+        if (existingMembers.containsKey(userId)) {
+            return TeamConstants.MESSAGE_ALREADY_MEMBER;
+        }
+        return null;
+    }
+
     @Override
     @Transactional
     public boolean removeMember(Long cardId, Long userId) {
@@ -101,40 +232,150 @@ public class TeamServiceImpl implements ITeamService {
                         cardId + " and " + userId));
 
         teamMemberRepository.delete(teamMember);
+        membershipChanged(teamMember);
+        teamEventOutbox.add(TeamEventConstants.MEMBER_REMOVED, teamMember.getTeamId(),
+                TeamMapper.mapToMemberEventDto(teamMember));
         return true;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<TeamMemberResponseDto> getTeamMembers(Long cardId, Pageable pageable) {
-        Specification<TeamMember> spec = (root, query, cb) -> cb.equal(root.get("cardId"), cardId);
-        
-        Page<TeamMember> teamMembersPage = teamMemberRepository.findAll(spec, pageable);
-        return teamMembersPage.map(TeamMapper::mapToTeamMemberResponseDto);
+        Specification<TeamMember> spec = TeamMemberSpecification.hasCardId(cardId);
+
+        Slice<TeamMember> teamMembersSlice = teamMemberRepository.findSlice(spec, pageable);
+        return approximateCountCache.toPage(teamMembersSlice, ApproximateCountCache.key("cardMembers", cardId),
+                        () -> teamMemberRepository.count(spec))
+                .map(TeamMapper::mapToTeamMemberResponseDto);
     }
 
     @Override
-    public List<TeamMemberResponseDto> getTeamsByMember(Long userId) {
-        return List.of();
+    @Transactional(readOnly = true)
+    public Slice<TeamMemberResponseDto> getTeamMembersSlice(Long cardId, Pageable pageable) {
+        return teamMemberRepository.findSlice(TeamMemberSpecification.hasCardId(cardId), pageable)
+                .map(TeamMapper::mapToTeamMemberResponseDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TeamResponseDto> getTeamsByMember(Long userId) {
+        List<Long> teamIds = teamMembershipCache.getTeamIds(userId,
+                () -> teamMemberRepository.findTeamIdsByUserId(userId, TeamConstants.STATUS_REJECTED));
+        if (teamIds.isEmpty()) {
+            return List.of();
+        }
+        return teamRepository.findAllById(teamIds).stream()
+                .sorted(Comparator.comparing(Team::getId))
+                .map(TeamMapper::mapToTeamResponseDtoSummary)
+                .toList();
     }
 
     @Override
     public TeamResponseDto fetchTeam(Long teamId) {
-        return TeamMapper.mapToTeamResponseDto(teamRepository.findById(teamId).orElseThrow(() -> new ResourceNotFoundException("Team", "team Id",
-                teamId.toString())));
+        Team team = teamRepository.findWithMembersById(teamId).orElseThrow(() -> new ResourceNotFoundException("Team", "team Id",
+                teamId.toString()));
+        entityVersionMap.record(TeamConstants.VERSION_TYPE, teamId, team.getVersion());
+        return TeamMapper.mapToTeamResponseDto(team);
     }
 
     @Override
+    public long getTeamVersion(Long teamId) {
+        return entityVersionMap.getVersion(TeamConstants.VERSION_TYPE, teamId, () -> teamRepository.findVersionById(teamId)
+                .orElseThrow(() -> new ResourceNotFoundException("Team", "team Id", teamId.toString())));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Page<TeamResponseDto> listTeams(Pageable pageable, Long userId) {
-        Page<Team> teamPage = userId != null
-                ? teamRepository.findTeamsByMemberUserId(userId, pageable)
-                : teamRepository.findAll(pageable);
-        return teamPage.map(TeamMapper::mapToTeamResponseDtoSummary);
+        Specification<Team> spec = TeamSpecification.hasMember(userId);
+
+        Slice<Team> teamSlice = teamRepository.findSlice(spec, pageable);
+        return approximateCountCache.toPage(teamSlice, ApproximateCountCache.key("teams", userId),
+                        () -> teamRepository.count(spec))
+                .map(TeamMapper::mapToTeamResponseDtoSummary);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Slice<TeamResponseDto> listTeamsSlice(Pageable pageable, Long userId) {
+        return teamRepository.findSlice(TeamSpecification.hasMember(userId), pageable)
+                .map(TeamMapper::mapToTeamResponseDtoSummary);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Page<TeamMemberResponseDto> getTeamMembersByTeamId(Long teamId, Pageable pageable) {
-        teamRepository.findById(teamId).orElseThrow(() -> new ResourceNotFoundException("Team", "teamId", teamId.toString()));
-        Page<TeamMember> memberPage = teamMemberRepository.findByTeamId(teamId, pageable);
-        return memberPage.map(TeamMapper::mapToTeamMemberResponseDto);
+        if (!teamRepository.existsById(teamId)) {
+            throw new ResourceNotFoundException("Team", "teamId", teamId.toString());
+        }
+        Specification<TeamMember> spec = TeamMemberSpecification.hasTeamId(teamId);
+
+        Slice<TeamMember> memberSlice = teamMemberRepository.findSlice(spec, pageable);
+        return approximateCountCache.toPage(memberSlice, ApproximateCountCache.key("teamMembers", teamId),
+                        () -> teamMemberRepository.count(spec))
+                .map(TeamMapper::mapToTeamMemberResponseDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<TeamMemberResponseDto> getTeamMembersByTeamIdSlice(Long teamId, Pageable pageable) {
+        if (!teamRepository.existsById(teamId)) {
+            throw new ResourceNotFoundException("Team", "teamId", teamId.toString());
+        }
+        return teamMemberRepository.findSlice(TeamMemberSpecification.hasTeamId(teamId), pageable)
+                .map(TeamMapper::mapToTeamMemberResponseDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportTeamMembers(Long teamId, Consumer<TeamMemberRow> consumer) {
+        if (!teamRepository.existsById(teamId)) {
+            throw new ResourceNotFoundException("Team", "teamId", teamId.toString());
+        }
+        exportRepository.streamTeamMembers(teamId, consumer);
+    }
+
+    /**
+     * Inserts a pending membership. The card usually comes from the second-level cache, so the
+     * insert is the only round-trip to the membership table; a duplicate is reported by the
+     * unique (card_id, user_id) key rather than looked up first.
+     */
+    private TeamMemberResponseDto addPendingMember(TeamMemberRequestDto teamMemberRequestDto, Card card,
+                                                   String eventType) {
+        TeamMember teamMember = TeamMapper.mapToTeamMember(teamMemberRequestDto, card, new TeamMember());
+        teamMember.setRole(TeamConstants.ROLE_PARTICIPANT);
+        teamMember.setStatus(TeamConstants.STATUS_PENDING);
+        if (!teamMemberBatchRepository.insertIfAbsent(teamMember)) {
+            throw new IllegalStateException(TeamConstants.MESSAGE_ALREADY_MEMBER);
+        }
+        membershipChanged(teamMember);
+        teamEventOutbox.add(eventType, teamMember.getTeamId(), TeamMapper.mapToMemberEventDto(teamMember));
+        return TeamMapper.mapToTeamMemberResponseDto(teamMember);
+    }
+
+    private static String statusEvent(String status) {
+        return TeamConstants.STATUS_JOINED.equals(status) ? TeamEventConstants.MEMBER_JOINED
+                : TeamEventConstants.MEMBER_REJECTED;
+    }
+
+    /**
+     * Invalidates what depends on the member's memberships: the "my teams" cache of the user and
+     * the team version behind its ETag
+     */
+    private void membershipChanged(TeamMember teamMember) {
+        membershipsChanged(teamMember.getTeamId(), List.of(teamMember.getUserId()));
+    }
+
+    /**
+     * Same as {@link #membershipChanged(TeamMember)} for many members of one team; the team
+     * version moves once per request
+     */
+    private void membershipsChanged(Long teamId, List<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        userIds.forEach(teamMembershipCache::evict);
+        teamMemberBatchRepository.incrementTeamVersion(teamId);
+        entityVersionMap.evict(TeamConstants.VERSION_TYPE, teamId);
     }
-}
\ No newline at end of file
+}
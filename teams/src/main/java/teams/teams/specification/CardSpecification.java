@@ -1,8 +1,12 @@
 package teams.teams.specification;
 
+import jakarta.persistence.criteria.Predicate;
 import org.springframework.data.jpa.domain.Specification;
 import teams.teams.entity.Card;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+
 /**
  * Specification class for Card entity to support filtering
  */
@@ -56,6 +60,42 @@ public class CardSpecification {
         };
     }
 
+    /**
+     * Creates a specification to filter cards by title or description (case-insensitive, contains)
+     *
+     * @param text the text to filter by
+     * @return a specification that filters cards by title or description
+     */
+    public static Specification<Card> textContains(String text) {
+        return (root, query, criteriaBuilder) -> {
+            if (text == null || text.isEmpty()) {
+                return criteriaBuilder.conjunction();
+            }
+            String pattern = "%" + text.toLowerCase() + "%";
+            return criteriaBuilder.or(
+                    criteriaBuilder.like(criteriaBuilder.lower(root.get("title")), pattern),
+                    criteriaBuilder.like(criteriaBuilder.lower(root.get("description")), pattern)
+            );
+        };
+    }
+
+    /**
+     * Creates a specification that keeps the given cards and any card updated at or after a time
+     *
+     * @param ids   the card IDs to keep
+     * @param since the earliest update time to keep regardless of ID
+     * @return a specification that filters cards by ID or update time
+     */
+    public static Specification<Card> idInOrUpdatedSince(Collection<Long> ids, LocalDateTime since) {
+        return (root, query, criteriaBuilder) -> {
+            Predicate updated = criteriaBuilder.greaterThanOrEqualTo(root.get("updatedAt"), since);
+            if (ids.isEmpty()) {
+                return updated;
+            }
+            return criteriaBuilder.or(root.get("id").in(ids), updated);
+        };
+    }
+
     /**
      * Combines multiple specifications with AND operator
      *
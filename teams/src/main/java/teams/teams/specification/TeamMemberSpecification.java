@@ -0,0 +1,30 @@
+package teams.teams.specification;
+
+import org.springframework.data.jpa.domain.Specification;
+import teams.teams.entity.TeamMember;
+
+/**
+ * Specification class for TeamMember entity to support filtering
+ */
+public class TeamMemberSpecification {
+
+    /**
+     * Creates a specification to filter team members by card ID
+     *
+     * @param cardId the card ID to filter by
+     * @return a specification that filters team members by card ID
+     */
+    public static Specification<TeamMember> hasCardId(Long cardId) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("cardId"), cardId);
+    }
+
+    /**
+     * Creates a specification to filter team members by team ID
+     *
+     * @param teamId the team ID to filter by
+     * @return a specification that filters team members by team ID
+     */
+    public static Specification<TeamMember> hasTeamId(Long teamId) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("teamId"), teamId);
+    }
+}
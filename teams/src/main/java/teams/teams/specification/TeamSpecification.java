@@ -0,0 +1,35 @@
+package teams.teams.specification;
+
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+import teams.teams.constants.TeamConstants;
+import teams.teams.entity.Team;
+import teams.teams.entity.TeamMember;
+
+/**
+ * Specification class for Team entity to support filtering
+ */
+public class TeamSpecification {
+
+    /**
+     * Creates a specification to filter teams where the given user is a member (for "my teams").
+     * Rejected memberships do not count, as in {@code TeamMemberRepository.findTeamIdsByUserId}.
+     *
+     * @param userId the user ID to filter by, or null for all teams
+     * @return a specification that filters teams by member
+     */
+    public static Specification<Team> hasMember(Long userId) {
+        return (root, query, criteriaBuilder) -> {
+            if (userId == null) {
+                return criteriaBuilder.conjunction();
+            }
+            Subquery<Long> teamIds = query.subquery(Long.class);
+            Root<TeamMember> member = teamIds.from(TeamMember.class);
+            teamIds.select(member.get("teamId")).where(
+                    criteriaBuilder.equal(member.get("userId"), userId),
+                    criteriaBuilder.notEqual(member.get("status"), TeamConstants.STATUS_REJECTED));
+            return root.get("id").in(teamIds);
+        };
+    }
+}
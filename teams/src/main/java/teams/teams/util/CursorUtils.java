@@ -0,0 +1,58 @@
+package teams.teams.util;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class CursorUtils {
+
+    private static final String UPDATED_AT = "updatedAt";
+    private static final String ID = "id";
+    private static final String SEPARATOR = "|";
+
+    private CursorUtils() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Encodes the (updatedAt, id) keyset of a scroll position into an opaque cursor
+     *
+     * @param position the position of the last element of the current window
+     * @return URL-safe cursor string
+     */
+    public static String encode(ScrollPosition position) {
+        Map<String, Object> keys = ((KeysetScrollPosition) position).getKeys();
+        String raw = keys.get(UPDATED_AT) + SEPARATOR + keys.get(ID);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode(ScrollPosition)} into a keyset scroll position.
+     * A null or empty cursor is the initial position.
+     *
+     * @param cursor the opaque cursor sent by the client
+     * @return keyset position to continue scrolling from
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static KeysetScrollPosition decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(UPDATED_AT, LocalDateTime.parse(raw.substring(0, separator)));
+            keys.put(ID, Long.valueOf(raw.substring(separator + 1)));
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException exception) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package teams.teams.util;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import teams.teams.api.model.CardResponseDto;
 import teams.teams.api.model.PagingCardResponseDto;
 import teams.teams.api.model.PagingTeamMemberResponseDto;
 import teams.teams.api.model.PagingTeamResponseDto;
 import teams.teams.api.model.TeamMemberResponseDto;
 import teams.teams.api.model.TeamResponseDto;
+import teams.teams.dto.CardRowPageDto;
+import teams.teams.repository.projection.CardRow;
 
 public class PageUtils {
 
@@ -15,50 +19,127 @@ public class PageUtils {
     }
 
     /**
-     * Converts a Spring Page of CardResponseDto to PagingCardResponseDto
+     * Converts a Spring Slice of CardResponseDto to PagingCardResponseDto.
+     * Totals are only set when the slice is a Page (count mode).
      *
-     * @param page the Spring Page object containing cards
+     * @param slice the Spring Slice or Page object containing cards
      * @return PagingCardResponseDto containing the paginated card data
      */
-    public static PagingCardResponseDto toPagingCardResponseDto(Page<CardResponseDto> page) {
+    public static PagingCardResponseDto toPagingCardResponseDto(Slice<CardResponseDto> slice) {
         PagingCardResponseDto pagingDto = new PagingCardResponseDto();
-        pagingDto.setContent(page.getContent());
-        pagingDto.setTotalElements(page.getTotalElements());
-        pagingDto.setTotalPages(page.getTotalPages());
-        pagingDto.setNumber(page.getNumber());
-        pagingDto.setSize(page.getSize());
+        pagingDto.setContent(slice.getContent());
+        pagingDto.setNumber(slice.getNumber());
+        pagingDto.setSize(slice.getSize());
+        pagingDto.setHasNext(slice.hasNext());
+        if (slice instanceof Page<CardResponseDto> page) {
+            pagingDto.setTotalElements(page.getTotalElements());
+            pagingDto.setTotalPages(page.getTotalPages());
+        }
         return pagingDto;
     }
 
     /**
-     * Converts a Spring Page of TeamMemberResponseDto to PagingTeamMemberResponseDto
+     * Converts a keyset Window of CardResponseDto to PagingCardResponseDto.
+     * Totals and page number are not computed in cursor mode.
      *
-     * @param page the Spring Page object containing team members
+     * @param window the Spring Data Window object containing cards
+     * @param size the requested page size
+     * @return PagingCardResponseDto containing the card data and the cursor of the next page
+     */
+    public static PagingCardResponseDto toPagingCardResponseDto(Window<CardResponseDto> window, int size) {
+        PagingCardResponseDto pagingDto = new PagingCardResponseDto();
+        pagingDto.setContent(window.getContent());
+        pagingDto.setSize(size);
+        pagingDto.setHasNext(window.hasNext());
+        pagingDto.setNextCursor(nextCursor(window));
+        return pagingDto;
+    }
+
+    /**
+     * Wraps a Spring Slice of card rows for streaming, without mapping the rows.
+     * Totals are only set when the slice is a Page (count mode).
+     *
+     * @param slice the Spring Slice or Page object containing card rows
+     * @return CardRowPageDto holding the rows and the paging data
+     */
+    public static CardRowPageDto toCardRowPageDto(Slice<CardRow> slice) {
+        CardRowPageDto pagingDto = new CardRowPageDto(slice.getContent());
+        pagingDto.setNumber(slice.getNumber());
+        pagingDto.setSize(slice.getSize());
+        pagingDto.setHasNext(slice.hasNext());
+        if (slice instanceof Page<CardRow> page) {
+            pagingDto.setTotalElements(page.getTotalElements());
+            pagingDto.setTotalPages(page.getTotalPages());
+        }
+        return pagingDto;
+    }
+
+    /**
+     * Wraps a keyset Window of card rows for streaming, without mapping the rows.
+     * Totals and page number are not computed in cursor mode.
+     *
+     * @param window the Spring Data Window object containing card rows
+     * @param size the requested page size
+     * @return CardRowPageDto holding the rows and the cursor of the next page
+     */
+    public static CardRowPageDto toCardRowPageDto(Window<CardRow> window, int size) {
+        CardRowPageDto pagingDto = new CardRowPageDto(window.getContent());
+        pagingDto.setSize(size);
+        pagingDto.setHasNext(window.hasNext());
+        pagingDto.setNextCursor(nextCursor(window));
+        return pagingDto;
+    }
+
+    /**
+     * Returns the opaque cursor of the page following the given window
+     *
+     * @param window the current window
+     * @return the next cursor, or null if this is the last window
+     */
+    public static String nextCursor(Window<?> window) {
+        if (window.isEmpty() || !window.hasNext()) {
+            return null;
+        }
+        return CursorUtils.encode(window.positionAt(window.size() - 1));
+    }
+
+    /**
+     * Converts a Spring Slice of TeamMemberResponseDto to PagingTeamMemberResponseDto.
+     * Totals are only set when the slice is a Page (count mode).
+     *
+     * @param slice the Spring Slice or Page object containing team members
      * @return PagingTeamMemberResponseDto containing the paginated team member data
      */
-    public static PagingTeamMemberResponseDto toPagingTeamMemberResponseDto(Page<TeamMemberResponseDto> page) {
+    public static PagingTeamMemberResponseDto toPagingTeamMemberResponseDto(Slice<TeamMemberResponseDto> slice) {
         PagingTeamMemberResponseDto pagingDto = new PagingTeamMemberResponseDto();
-        pagingDto.setContent(page.getContent());
-        pagingDto.setTotalElements(page.getTotalElements());
-        pagingDto.setTotalPages(page.getTotalPages());
-        pagingDto.setNumber(page.getNumber());
-        pagingDto.setSize(page.getSize());
+        pagingDto.setContent(slice.getContent());
+        pagingDto.setNumber(slice.getNumber());
+        pagingDto.setSize(slice.getSize());
+        pagingDto.setHasNext(slice.hasNext());
+        if (slice instanceof Page<TeamMemberResponseDto> page) {
+            pagingDto.setTotalElements(page.getTotalElements());
+            pagingDto.setTotalPages(page.getTotalPages());
+        }
         return pagingDto;
     }
 
     /**
-     * Converts a Spring Page of TeamResponseDto to PagingTeamResponseDto
+     * Converts a Spring Slice of TeamResponseDto to PagingTeamResponseDto.
+     * Totals are only set when the slice is a Page (count mode).
      *
-     * @param page the Spring Page object containing teams
+     * @param slice the Spring Slice or Page object containing teams
      * @return PagingTeamResponseDto containing the paginated team data
      */
-    public static PagingTeamResponseDto toPagingTeamResponseDto(Page<TeamResponseDto> page) {
+    public static PagingTeamResponseDto toPagingTeamResponseDto(Slice<TeamResponseDto> slice) {
         PagingTeamResponseDto pagingDto = new PagingTeamResponseDto();
-        pagingDto.setContent(page.getContent());
-        pagingDto.setTotalElements(page.getTotalElements());
-        pagingDto.setTotalPages(page.getTotalPages());
-        pagingDto.setNumber(page.getNumber());
-        pagingDto.setSize(page.getSize());
+        pagingDto.setContent(slice.getContent());
+        pagingDto.setNumber(slice.getNumber());
+        pagingDto.setSize(slice.getSize());
+        pagingDto.setHasNext(slice.hasNext());
+        if (slice instanceof Page<TeamResponseDto> page) {
+            pagingDto.setTotalElements(page.getTotalElements());
+            pagingDto.setTotalPages(page.getTotalPages());
+        }
         return pagingDto;
     }
 }
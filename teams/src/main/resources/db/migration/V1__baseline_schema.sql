@@ -0,0 +1,51 @@
+-- Schema as created by hibernate.ddl-auto=update up to the release before migrations. Databases
+-- that already have it are baselined at version 1 (spring.flyway.baseline-on-migrate) and skip
+-- this script; everything added since is in V2 and later, so they receive it too.
+
+CREATE TABLE team (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    created_at  DATETIME(6),
+    created_by  VARCHAR(255),
+    updated_at  DATETIME(6),
+    updated_by  VARCHAR(255),
+    name        VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE cards (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    created_at  DATETIME(6),
+    created_by  VARCHAR(255),
+    updated_at  DATETIME(6),
+    updated_by  VARCHAR(255),
+    title       VARCHAR(100) NOT NULL,
+    description VARCHAR(500),
+    poster_url  VARCHAR(255),
+    owner_id    BIGINT       NOT NULL,
+    team_id     BIGINT       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_cards_team FOREIGN KEY (team_id) REFERENCES team (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE team_member (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    created_at DATETIME(6),
+    created_by VARCHAR(255),
+    updated_at DATETIME(6),
+    updated_by VARCHAR(255),
+    team_id    BIGINT       NOT NULL,
+    card_id    BIGINT,
+    user_id    BIGINT       NOT NULL,
+    role       VARCHAR(255) NOT NULL,
+    status     VARCHAR(255) NOT NULL,
+    joined_at  DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE team_members (
+    team_id        BIGINT NOT NULL,
+    team_member_id BIGINT NOT NULL,
+    CONSTRAINT fk_team_members_team FOREIGN KEY (team_id) REFERENCES team (id),
+    CONSTRAINT fk_team_members_member FOREIGN KEY (team_member_id) REFERENCES team_member (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,24 @@
+-- Indexes for the hot read paths, none of which existed before migrations.
+-- Cursor listings of all cards, by owner and by team, ordered by (updated_at, id).
+CREATE INDEX idx_cards_updated_at_id ON cards (updated_at, id);
+CREATE INDEX idx_cards_owner_updated_at_id ON cards (owner_id, updated_at, id);
+CREATE INDEX idx_cards_team_updated_at_id ON cards (team_id, updated_at, id);
+
+-- Teams of a user (findTeamIdsByUserId, findTeamsByMemberUserId).
+CREATE INDEX idx_team_member_user_team_status ON team_member (user_id, team_id, status);
+
+-- Members of a team (findByTeamId, team member listings) and membership of a user in a team
+-- (findByTeamIdAndUserId).
+CREATE INDEX idx_team_member_team_user ON team_member (team_id, user_id);
+
+-- One membership per card and user; join and invite insert and rely on the duplicate-key error.
+-- Before the key existed, concurrent joins could create duplicates: keep the oldest membership of
+-- each card and user and drop the others, with their team_members links.
+DELETE link FROM team_members link
+    JOIN team_member duplicate ON duplicate.id = link.team_member_id
+    JOIN team_member kept ON kept.card_id = duplicate.card_id AND kept.user_id = duplicate.user_id
+        AND kept.id < duplicate.id;
+DELETE duplicate FROM team_member duplicate
+    JOIN team_member kept ON kept.card_id = duplicate.card_id AND kept.user_id = duplicate.user_id
+        AND kept.id < duplicate.id;
+ALTER TABLE team_member ADD CONSTRAINT uk_team_member_card_user UNIQUE (card_id, user_id);
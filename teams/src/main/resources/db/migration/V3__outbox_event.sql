@@ -0,0 +1,10 @@
+-- Domain events written in the transaction of the change they describe. OutboxRelay publishes
+-- them to Kafka and deletes them; rows are read in ID order, which is the order they were added.
+CREATE TABLE outbox_event (
+    id          BIGINT       NOT NULL,
+    event_type  VARCHAR(64)  NOT NULL,
+    event_key   VARCHAR(64)  NOT NULL,
+    payload     TEXT         NOT NULL,
+    created_at  DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
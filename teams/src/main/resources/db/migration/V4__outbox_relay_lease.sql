@@ -0,0 +1,10 @@
+-- One row naming the instance allowed to relay the outbox, until expires_at. A single relay keeps
+-- the events of a team in order; the lease moves to another instance once the holder stops renewing it.
+CREATE TABLE outbox_relay_lease (
+    id          INT          NOT NULL,
+    claimed_by  VARCHAR(64)  NULL,
+    expires_at  DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+INSERT INTO outbox_relay_lease (id, claimed_by, expires_at) VALUES (1, NULL, '1970-01-01 00:00:00');
@@ -0,0 +1,4 @@
+-- Optimistic locking and ETag versions. Existing rows start at version 0.
+ALTER TABLE team ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE cards ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE team_member ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,120 @@
+package teams.teams.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletResponse;
+import teams.teams.api.model.TeamMemberResponseDto;
+import teams.teams.mapper.TeamMemberJsonWriter;
+import teams.teams.repository.projection.TeamMemberRow;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that exports write one Jackson-identical object per line, compress on request and leave
+ * the response untouched until the first row.
+ */
+class NdjsonResponseTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+
+    private final List<TeamMemberRow> rows = List.of(
+            new TeamMemberRow(1L, 10L, 100L, "JOINED", LocalDateTime.of(2024, 3, 1, 9, 30), "alice",
+                    LocalDateTime.of(2024, 3, 2, 10, 0, 0, 500_000_000), "bob"),
+            new TeamMemberRow(2L, null, 101L, "PENDING", LocalDateTime.of(2024, 3, 1, 9, 31), "alice",
+                    LocalDateTime.of(2024, 3, 1, 9, 31), null),
+            new TeamMemberRow(3L, 10L, 102L, "REJECTED \"quoted\"", LocalDateTime.of(2024, 7, 1, 0, 0), "alice",
+                    LocalDateTime.of(2024, 7, 1, 0, 0), "alice"));
+
+    @Test
+    void writesOneJacksonObjectPerLineAndFlushesEveryBatch() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        NdjsonResponse<TeamMemberRow> export = export(response, false);
+
+        export.accept(rows.get(0));
+        assertFalse(response.isCommitted());
+        export.accept(rows.get(1));
+        assertTrue(response.isCommitted());
+        export.accept(rows.get(2));
+        export.finish();
+
+        assertEquals(expectedLines(), response.getContentAsString(StandardCharsets.UTF_8));
+        assertEquals("application/x-ndjson;charset=UTF-8", response.getContentType());
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void compressesWhenAsked() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        NdjsonResponse<TeamMemberRow> export = export(response, true);
+        rows.forEach(export);
+        export.finish();
+
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        try (InputStream body = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertEquals(expectedLines(), new String(body.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void leavesResponseUntouchedUntilFirstRow() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        NdjsonResponse<TeamMemberRow> export = export(response, true);
+
+        assertNull(response.getContentType());
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+
+        export.finish();
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        try (InputStream body = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertEquals(0, body.readAllBytes().length);
+        }
+    }
+
+    @Test
+    void negotiatesGzip() {
+        assertTrue(NdjsonResponse.acceptsGzip("gzip"));
+        assertTrue(NdjsonResponse.acceptsGzip("deflate, GZIP;q=0.5, br"));
+        assertFalse(NdjsonResponse.acceptsGzip(null));
+        assertFalse(NdjsonResponse.acceptsGzip("identity"));
+        assertFalse(NdjsonResponse.acceptsGzip("gzip;q=0"));
+        assertFalse(NdjsonResponse.acceptsGzip("br, gzip; q=0.000"));
+    }
+
+    private NdjsonResponse<TeamMemberRow> export(MockHttpServletResponse response, boolean gzip) {
+        return new NdjsonResponse<>(response, objectMapper.getFactory(), "members.ndjson", gzip, 2,
+                generator -> new TeamMemberJsonWriter(generator)::write);
+    }
+
+    private String expectedLines() throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (TeamMemberRow row : rows) {
+            TeamMemberResponseDto dto = new TeamMemberResponseDto();
+            dto.setId(row.id());
+            dto.setCardId(row.cardId());
+            dto.setUserId(row.userId());
+            dto.setStatus(row.status());
+            dto.setCreatedAt(row.createdAt().atZone(ZoneId.systemDefault()).toOffsetDateTime());
+            dto.setCreatedBy(row.createdBy());
+            dto.setUpdatedAt(row.updatedAt().atZone(ZoneId.systemDefault()).toOffsetDateTime());
+            dto.setUpdatedBy(row.updatedBy());
+            lines.append(objectMapper.writeValueAsString(dto)).append('\n');
+        }
+        return lines.toString();
+    }
+}
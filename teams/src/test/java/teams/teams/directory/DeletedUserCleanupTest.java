@@ -0,0 +1,206 @@
+package teams.teams.directory;
+
+import com.teamup.commons.cache.EntityVersionMap;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+import teams.teams.audit.AuditAwareImpl;
+import teams.teams.cache.TeamMembershipCache;
+import teams.teams.constants.TeamConstants;
+import teams.teams.constants.TeamEventConstants;
+import teams.teams.entity.Card;
+import teams.teams.entity.Team;
+import teams.teams.entity.TeamMember;
+import teams.teams.outbox.TeamEventOutbox;
+import teams.teams.repository.CardsRepository;
+import teams.teams.repository.SliceJpaRepository;
+import teams.teams.repository.TeamMemberRepository;
+import teams.teams.repository.TeamRepository;
+import teams.teams.repository.UserCleanupRepository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Checks that the cleanup of deleted users removes their memberships and join table links,
+ * reassigns their cards in chunks, leaves other users alone and finds nothing to do when repeated,
+ * and that it is left out, without failing startup, until a card owner is configured.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.sql.init.mode=never",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class DeletedUserCleanupTest {
+
+    private static final long DELETED_USER_ID = 7L;
+    private static final long OTHER_USER_ID = 8L;
+    private static final long CARD_OWNER_ID = 9L;
+    private static final int CHUNK_SIZE = 3;
+
+    @Configuration
+    @EntityScan(basePackageClasses = Team.class)
+    @EnableJpaRepositories(basePackageClasses = TeamRepository.class, repositoryBaseClass = SliceJpaRepository.class)
+    @EnableJpaAuditing(auditorAwareRef = "auditAwareImpl")
+    @Import(AuditAwareImpl.class)
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private TeamMemberRepository teamMemberRepository;
+
+    @Autowired
+    private CardsRepository cardsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuditAwareImpl auditAware;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final TeamEventOutbox teamEventOutbox = mock(TeamEventOutbox.class);
+    private DeletedUserCleanup deletedUserCleanup;
+    private Long teamId;
+
+    @BeforeEach
+    void setUp() {
+        deletedUserCleanup = new DeletedUserCleanup(
+                new UserCleanupRepository(jdbcTemplate, auditAware, entityManagerFactory), teamEventOutbox,
+                new TeamMembershipCache(new SimpleMeterRegistry(), 10000, 30000),
+                new EntityVersionMap(new SimpleMeterRegistry(), 5000, 10000),
+                new TransactionTemplate(transactionManager), new SimpleMeterRegistry(), CHUNK_SIZE, CARD_OWNER_ID);
+
+        Team team = new Team();
+        team.setName("Cleanup team");
+        team = teamRepository.save(team);
+        List<Card> cards = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Card card = new Card();
+            card.setTitle("Card " + i);
+            // The deleted user owns three of the four cards
+            card.setOwnerId(i < 3 ? DELETED_USER_ID : OTHER_USER_ID);
+            card.setTeam(team);
+            cards.add(cardsRepository.save(card));
+        }
+        List<TeamMember> members = new ArrayList<>();
+        for (Card card : cards) {
+            members.add(teamMemberRepository.save(member(team.getId(), card.getId(), DELETED_USER_ID)));
+        }
+        members.add(teamMemberRepository.save(member(team.getId(), cards.get(0).getId(), OTHER_USER_ID)));
+        team.setTeamMembers(members);
+        teamId = team.getId();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void removesMembershipsAndReassignsCardsInChunks() {
+        long version = teamVersion();
+
+        deletedUserCleanup.cleanUp(List.of(DELETED_USER_ID), Instant.now());
+
+        assertEquals(0, count("SELECT COUNT(*) FROM team_member WHERE user_id = ?", DELETED_USER_ID));
+        assertEquals(1, count("SELECT COUNT(*) FROM team_member WHERE user_id = ?", OTHER_USER_ID));
+        assertEquals(1, count("SELECT COUNT(*) FROM team_members WHERE team_id = ?", teamId));
+        assertEquals(0, count("SELECT COUNT(*) FROM cards WHERE owner_id = ?", DELETED_USER_ID));
+        assertEquals(3, count("SELECT COUNT(*) FROM cards WHERE owner_id = ?", CARD_OWNER_ID));
+        assertEquals(1, count("SELECT COUNT(*) FROM cards WHERE owner_id = ?", OTHER_USER_ID));
+        // Four memberships in chunks of three: the team version moves once per chunk
+        assertEquals(version + 2, teamVersion());
+        verify(teamEventOutbox, times(2)).addAll(eq(TeamEventConstants.MEMBER_REMOVED), anyList(), any());
+    }
+
+    @Test
+    void repeatedCleanupChangesNothing() {
+        deletedUserCleanup.cleanUp(List.of(DELETED_USER_ID), Instant.now());
+        long version = teamVersion();
+
+        deletedUserCleanup.cleanUp(List.of(DELETED_USER_ID, DELETED_USER_ID), Instant.now());
+
+        assertEquals(1, count("SELECT COUNT(*) FROM team_member", null));
+        assertEquals(3, count("SELECT COUNT(*) FROM cards WHERE owner_id = ?", CARD_OWNER_ID));
+        assertEquals(version, teamVersion());
+        verify(teamEventOutbox, times(2)).addAll(eq(TeamEventConstants.MEMBER_REMOVED), anyList(), any());
+    }
+
+    @Test
+    void isDisabledWithoutCardOwner() {
+        ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(PropertyPlaceholderAutoConfiguration.class))
+                .withBean(UserCleanupRepository.class, () -> mock(UserCleanupRepository.class))
+                .withBean(TeamEventOutbox.class, () -> teamEventOutbox)
+                .withBean(TeamMembershipCache.class, () -> mock(TeamMembershipCache.class))
+                .withBean(EntityVersionMap.class, () -> mock(EntityVersionMap.class))
+                .withBean(TransactionOperations.class, TransactionOperations::withoutTransaction)
+                .withBean(SimpleMeterRegistry.class)
+                .withBean(DeletedUserCleanup.class);
+
+        // The shipped configuration sets no owner
+        contextRunner.run(context -> assertThat(context).hasNotFailed().doesNotHaveBean(DeletedUserCleanup.class));
+        contextRunner.withPropertyValues("users.cleanup.card-owner-id=0")
+                .run(context -> assertThat(context).getFailure()
+                        .hasStackTraceContaining("users.cleanup.card-owner-id must be the ID of an existing user"));
+        contextRunner.withPropertyValues("users.cleanup.card-owner-id=" + CARD_OWNER_ID)
+                .run(context -> assertThat(context).hasSingleBean(DeletedUserCleanup.class));
+    }
+
+    private static TeamMember member(Long teamId, Long cardId, Long userId) {
+        TeamMember member = new TeamMember();
+        member.setTeamId(teamId);
+        member.setCardId(cardId);
+        member.setUserId(userId);
+        member.setRole(TeamConstants.ROLE_PARTICIPANT);
+        member.setStatus(TeamConstants.STATUS_JOINED);
+        return member;
+    }
+
+    private long teamVersion() {
+        return count("SELECT version FROM team WHERE id = ?", teamId);
+    }
+
+    private long count(String sql, Long parameter) {
+        Long value = parameter == null
+                ? jdbcTemplate.queryForObject(sql, Long.class)
+                : jdbcTemplate.queryForObject(sql, Long.class, parameter);
+        return value == null ? 0 : value;
+    }
+}
@@ -0,0 +1,64 @@
+package teams.teams.id;
+
+import com.teamup.commons.id.SnowflakeIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of ID generation, uncontended and with 8 threads sharing one generator, next to a
+ * plain {@link AtomicLong} counter as the lower bound of any lock-free scheme.
+ * <p>
+ * With the default layout a node can issue 128 IDs per millisecond; beyond that the generator
+ * borrows future milliseconds up to {@code max-backward-ms} and then spins, which is what the
+ * contended numbers show. Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark.includes=SnowflakeIdGenerator}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SnowflakeIdGeneratorBenchmark {
+
+    private final SnowflakeIdGenerator defaultLayout = new SnowflakeIdGenerator(1, 5, 7, 10);
+    private final SnowflakeIdGenerator classicLayout = new SnowflakeIdGenerator(1, 10, 12, 10);
+    private final AtomicLong counter = new AtomicLong();
+
+    @Benchmark
+    public long defaultLayout() {
+        return defaultLayout.nextId();
+    }
+
+    @Benchmark
+    public long classicLayout() {
+        return classicLayout.nextId();
+    }
+
+    @Benchmark
+    public long atomicCounter() {
+        return counter.incrementAndGet();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long defaultLayoutContended() {
+        return defaultLayout.nextId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long classicLayoutContended() {
+        return classicLayout.nextId();
+    }
+}
@@ -0,0 +1,96 @@
+package teams.teams.mapper;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import teams.teams.api.model.PagingCardResponseDto;
+import teams.teams.controller.CardPageHttpMessageConverter;
+import teams.teams.dto.CardRowPageDto;
+import teams.teams.repository.projection.CardRow;
+import teams.teams.util.PageUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that streamed card pages are byte for byte what Jackson writes for the generated DTOs,
+ * so switching a listing to the streaming path does not change its response.
+ */
+class CardJsonWriterTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+
+    @Test
+    void countedPageMatchesJackson() throws IOException {
+        List<CardRow> rows = MapperFixtures.cardRows(3);
+        assertSameJson(PageUtils.toCardRowPageDto(new PageImpl<>(rows, PageRequest.of(0, 3), 10)));
+    }
+
+    @Test
+    void cursorPageMatchesJackson() throws IOException {
+        CardRowPageDto page = PageUtils.toCardRowPageDto(new SliceImpl<>(MapperFixtures.cardRows(2), PageRequest.of(0, 2), true));
+        page.setNumber(null);
+        page.setNextCursor("MjAyNC0wMy0wMVQwOTozMTozMHwxMDAwMDAwMDAwMDAx");
+        assertSameJson(page);
+    }
+
+    @Test
+    void nullsFractionsAndEscapesMatchJackson() throws IOException {
+        LocalDateTime time = LocalDateTime.of(2024, 12, 31, 23, 59, 59);
+        List<CardRow> rows = new ArrayList<>();
+        rows.add(new CardRow(1L, 0L, "Quote \" and \\ and \n", null, null, 2L, 3L, time, null, null, "bob"));
+        rows.add(new CardRow(2L, 1L, "Ünïcödé ✓", "Tab\t", "https://example.com/a?b=c&d=%20", 2L, 3L,
+                time.withNano(123_000_000), "alice", time.withNano(1), "bob"));
+        rows.add(new CardRow(3L, 2L, "Fractions", "", "https://example.com", 2L, 3L,
+                time.withNano(120_450_000), "alice", LocalDateTime.of(1, 1, 1, 0, 0), "bob"));
+        assertSameJson(PageUtils.toCardRowPageDto(new SliceImpl<>(rows, PageRequest.of(2, 3), false)));
+    }
+
+    @Test
+    void emptyPageMatchesJackson() throws IOException {
+        assertSameJson(PageUtils.toCardRowPageDto(new SliceImpl<>(List.of(), PageRequest.of(0, 10), false)));
+    }
+
+    @Test
+    void streamsOnlyWithCompatibleMapperSettings() {
+        assertTrue(CardPageHttpMessageConverter.isCompatible(objectMapper));
+        assertFalse(CardPageHttpMessageConverter.isCompatible(Jackson2ObjectMapperBuilder.json().build()));
+        assertFalse(CardPageHttpMessageConverter.isCompatible(Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .serializationInclusion(JsonInclude.Include.NON_NULL).build()));
+    }
+
+    private void assertSameJson(CardRowPageDto page) throws IOException {
+        PagingCardResponseDto dto = new PagingCardResponseDto();
+        dto.setTotalElements(page.getTotalElements());
+        dto.setTotalPages(page.getTotalPages());
+        dto.setNumber(page.getNumber());
+        dto.setSize(page.getSize());
+        dto.setHasNext(page.getHasNext());
+        dto.setContent(page.getContent());
+        dto.setNextCursor(page.getNextCursor());
+        String expected = objectMapper.writerFor(PagingCardResponseDto.class).writeValueAsString(dto);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper.createGenerator(output, JsonEncoding.UTF8)) {
+            new CardJsonWriter(generator).write(page);
+        }
+        assertEquals(expected, output.toString(StandardCharsets.UTF_8));
+    }
+}
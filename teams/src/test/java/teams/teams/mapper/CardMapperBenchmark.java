@@ -0,0 +1,70 @@
+package teams.teams.mapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import teams.teams.api.model.CardResponseDto;
+import teams.teams.entity.Card;
+
+import java.net.URI;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of mapping one listing page of cards, next to the two per-row calls that dominate it:
+ * parsing the poster URL with {@link URI#create} and resolving {@link ZoneId#systemDefault()}
+ * for each audit timestamp.
+ * <p>
+ * Compare {@code gc.alloc.rate.norm} of {@code mapPage} with {@code pageSize} times the row
+ * benchmarks to see how much of the page is spent on these calls. Run with
+ * {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark.includes=CardMapper}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CardMapperBenchmark {
+
+    @Param({"20", "100", "500"})
+    private int pageSize;
+
+    private List<Card> cards;
+    private Card card;
+
+    @Setup
+    public void setUp() {
+        cards = MapperFixtures.cards(pageSize);
+        card = cards.get(0);
+    }
+
+    @Benchmark
+    public List<CardResponseDto> mapPage() {
+        return CardMapper.mapToCardsResponseDto(cards);
+    }
+
+    @Benchmark
+    public CardResponseDto mapRow() {
+        return CardMapper.mapToCardResponseDto(card);
+    }
+
+    @Benchmark
+    public URI posterUrl() {
+        return URI.create(card.getPosterUrl());
+    }
+
+    @Benchmark
+    public ZoneId systemDefaultZone() {
+        return ZoneId.systemDefault();
+    }
+}
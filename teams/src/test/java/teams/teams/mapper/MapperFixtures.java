@@ -0,0 +1,99 @@
+package teams.teams.mapper;
+
+import teams.teams.constants.TeamConstants;
+import teams.teams.entity.BaseEntity;
+import teams.teams.entity.Card;
+import teams.teams.entity.Team;
+import teams.teams.entity.TeamMember;
+import teams.teams.repository.projection.CardRow;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entities shaped like listing rows, shared by the mapper and paging benchmarks. Every row
+ * has a poster URL and both audit timestamps, so no mapper branch is skipped.
+ */
+public final class MapperFixtures {
+
+    private static final long FIRST_ID = 1_000_000_000_000L;
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 3, 1, 9, 30);
+
+    private MapperFixtures() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static Team team(int members) {
+        Team team = new Team();
+        audit(team, FIRST_ID, 0);
+        team.setName("Backend guild");
+        team.setDescription("Owns the services behind the cards listing");
+        team.setTeamMembers(teamMembers(team, members));
+        return team;
+    }
+
+    public static List<Team> teams(int count) {
+        List<Team> teams = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Team team = new Team();
+            audit(team, FIRST_ID + i, i);
+            team.setName("Team " + i);
+            team.setDescription("Description of team " + i);
+            teams.add(team);
+        }
+        return teams;
+    }
+
+    public static List<Card> cards(int count) {
+        Team team = team(0);
+        List<Card> cards = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Card card = new Card();
+            audit(card, FIRST_ID + i, i);
+            card.setTitle("Card title " + i);
+            card.setDescription("Looking for two more people to build the release dashboard, card " + i);
+            card.setPosterUrl("https://cdn.example.com/posters/" + (FIRST_ID + i) + ".png");
+            card.setOwnerId(42L + i % 50);
+            card.setTeam(team);
+            cards.add(card);
+        }
+        return cards;
+    }
+
+    /**
+     * The rows a listing reads for {@link #cards(int)}, with the same values
+     */
+    public static List<CardRow> cardRows(int count) {
+        return cards(count).stream()
+                .map(card -> new CardRow(card.getId(), card.getVersion(), card.getTitle(), card.getDescription(),
+                        card.getPosterUrl(), card.getOwnerId(), card.getTeam().getId(), card.getCreatedAt(),
+                        card.getCreatedBy(), card.getUpdatedAt(), card.getUpdatedBy()))
+                .toList();
+    }
+
+    public static List<TeamMember> teamMembers(Team team, int count) {
+        List<TeamMember> teamMembers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            TeamMember teamMember = new TeamMember();
+            audit(teamMember, FIRST_ID + i, i);
+            teamMember.setTeamId(team.getId());
+            teamMember.setCardId(FIRST_ID);
+            teamMember.setUserId(42L + i);
+            teamMember.setRole(TeamConstants.ROLE_PARTICIPANT);
+            teamMember.setStatus(TeamConstants.STATUS_JOINED);
+            teamMember.setJoinedAt(CREATED_AT.plusMinutes(i));
+            teamMembers.add(teamMember);
+        }
+        return teamMembers;
+    }
+
+    private static void audit(BaseEntity entity, long id, int row) {
+        entity.setId(id);
+        entity.setVersion((long) row % 3);
+        entity.setCreatedAt(CREATED_AT.plusMinutes(row));
+        entity.setCreatedBy("alice");
+        entity.setUpdatedAt(CREATED_AT.plusMinutes(row).plusSeconds(30));
+        entity.setUpdatedBy("bob");
+    }
+}
@@ -0,0 +1,63 @@
+package teams.teams.mapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import teams.teams.api.model.TeamMemberResponseDto;
+import teams.teams.api.model.TeamResponseDto;
+import teams.teams.entity.Team;
+import teams.teams.entity.TeamMember;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the team mappers at listing sizes: a team with its members (detail view), a page of
+ * team summaries (list view) and a page of members. Run with
+ * {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark.includes=TeamMapper}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TeamMapperBenchmark {
+
+    @Param({"20", "100", "500"})
+    private int pageSize;
+
+    private Team team;
+    private List<Team> teams;
+    private List<TeamMember> teamMembers;
+
+    @Setup
+    public void setUp() {
+        team = MapperFixtures.team(pageSize);
+        teams = MapperFixtures.teams(pageSize);
+        teamMembers = team.getTeamMembers();
+    }
+
+    @Benchmark
+    public TeamResponseDto teamWithMembers() {
+        return TeamMapper.mapToTeamResponseDto(team);
+    }
+
+    @Benchmark
+    public List<TeamResponseDto> teamSummaries() {
+        return teams.stream().map(TeamMapper::mapToTeamResponseDtoSummary).toList();
+    }
+
+    @Benchmark
+    public List<TeamMemberResponseDto> teamMembers() {
+        return teamMembers.stream().map(TeamMapper::mapToTeamMemberResponseDto).toList();
+    }
+}
@@ -0,0 +1,191 @@
+package teams.teams.service.impl;
+
+import com.teamup.commons.cache.EntityVersionMap;
+import com.teamup.commons.id.IdGenerator;
+import com.teamup.commons.id.SnowflakeIdGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import teams.teams.api.model.TeamMemberRequestDto;
+import teams.teams.audit.AuditAwareImpl;
+import teams.teams.cache.ApproximateCountCache;
+import teams.teams.cache.TeamMembershipCache;
+import teams.teams.directory.UserVerifier;
+import teams.teams.entity.Card;
+import teams.teams.entity.Team;
+import teams.teams.outbox.TeamEventOutbox;
+import teams.teams.repository.CardsRepository;
+import teams.teams.repository.ExportRepository;
+import teams.teams.repository.SliceJpaRepository;
+import teams.teams.repository.TeamMemberBatchRepository;
+import teams.teams.repository.TeamMemberRepository;
+import teams.teams.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fires concurrent joins for the same users at one card and checks that the unique
+ * (card_id, user_id) key lets exactly one join per user through, without deadlocks or lock
+ * timeouts. Every join runs in its own committed transaction, as it would behind the controller.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.sql.init.mode=never",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@MockBean({UserVerifier.class, TeamEventOutbox.class})
+class TeamServiceImplJoinStressTest {
+
+    private static final int USERS = 20;
+    private static final int ATTEMPTS_PER_USER = 8;
+    private static final int THREADS = 16;
+    // Generous bound: catches lock convoys and timeouts, not a benchmark
+    private static final long MAX_P99_MILLIS = 2000;
+
+    @Configuration
+    @EntityScan(basePackageClasses = Team.class)
+    @EnableJpaRepositories(basePackageClasses = TeamRepository.class, repositoryBaseClass = SliceJpaRepository.class)
+    @EnableJpaAuditing(auditorAwareRef = "auditAwareImpl")
+    @Import({AuditAwareImpl.class, TeamServiceImpl.class, TeamMemberBatchRepository.class, TeamMembershipCache.class,
+            ApproximateCountCache.class, EntityVersionMap.class, ExportRepository.class})
+    static class JpaConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        IdGenerator idGenerator() {
+            return new SnowflakeIdGenerator(1, 5, 7, 10);
+        }
+    }
+
+    @Autowired
+    private TeamServiceImpl teamService;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private TeamMemberRepository teamMemberRepository;
+
+    @Autowired
+    private CardsRepository cardsRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Long teamId;
+    private Long cardId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Team team = new Team();
+        team.setName("Stress team");
+        team = teamRepository.save(team);
+        Card card = new Card();
+        card.setTitle("Stress card");
+        card.setOwnerId(1L);
+        card.setTeam(team);
+        teamId = team.getId();
+        cardId = cardsRepository.save(card).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        teamMemberRepository.deleteAllInBatch();
+        cardsRepository.deleteAllInBatch();
+        teamRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void concurrentJoinsCreateOneMembershipPerUser() throws Exception {
+        AtomicInteger joined = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int attempt = 0; attempt < ATTEMPTS_PER_USER; attempt++) {
+            for (long userId = 1; userId <= USERS; userId++) {
+                long user = userId;
+                tasks.add(() -> {
+                    start.await();
+                    TeamMemberRequestDto request = new TeamMemberRequestDto();
+                    request.setCardId(cardId);
+                    request.setUserId(user);
+                    long begin = System.nanoTime();
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> teamService.joinTeam(request));
+                        joined.incrementAndGet();
+                    } catch (IllegalStateException exception) {
+                        rejected.incrementAndGet();
+                    } finally {
+                        latencies.add(System.nanoTime() - begin);
+                    }
+                    return null;
+                });
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (Callable<Void> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                // Any other failure (deadlock, lock timeout) surfaces here
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(USERS, joined.get());
+        assertEquals(USERS * (ATTEMPTS_PER_USER - 1), rejected.get());
+        assertEquals(USERS, teamMemberRepository.findByCardId(cardId).size());
+        assertEquals(USERS, teamRepository.findById(teamId).orElseThrow().getVersion());
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        long p50 = TimeUnit.NANOSECONDS.toMillis(sorted.get(sorted.size() / 2));
+        long p99 = TimeUnit.NANOSECONDS.toMillis(sorted.get(sorted.size() * 99 / 100));
+        assertTrue(p99 < MAX_P99_MILLIS, () -> "join latency over " + sorted.size() + " calls: p50 " + p50
+                + " ms, p99 " + p99 + " ms");
+    }
+}
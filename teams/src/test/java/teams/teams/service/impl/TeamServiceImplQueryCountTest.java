@@ -0,0 +1,176 @@
+package teams.teams.service.impl;
+
+import com.teamup.commons.cache.EntityVersionMap;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import teams.teams.api.model.TeamResponseDto;
+import teams.teams.audit.AuditAwareImpl;
+import teams.teams.cache.ApproximateCountCache;
+import teams.teams.cache.TeamMembershipCache;
+import teams.teams.constants.TeamConstants;
+import teams.teams.directory.UserVerifier;
+import teams.teams.entity.Team;
+import teams.teams.entity.TeamMember;
+import teams.teams.outbox.TeamEventOutbox;
+import teams.teams.repository.ExportRepository;
+import teams.teams.repository.SliceJpaRepository;
+import teams.teams.repository.TeamMemberBatchRepository;
+import teams.teams.repository.TeamMemberRepository;
+import teams.teams.repository.TeamRepository;
+import teams.teams.repository.projection.TeamMemberRow;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pins the number of SQL statements issued by the team read paths, so a fetch plan
+ * regression (eager collections, N+1 member loads) fails the build.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.sql.init.mode=never",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "exports.fetch-size=2"
+})
+@MockBean({TeamMemberBatchRepository.class, UserVerifier.class, TeamEventOutbox.class})
+class TeamServiceImplQueryCountTest {
+
+    private static final int TEAMS = 3;
+    private static final int MEMBERS_PER_TEAM = 4;
+    private static final long MEMBER_USER_ID = 1L;
+
+    @Configuration
+    @EntityScan(basePackageClasses = Team.class)
+    @EnableJpaRepositories(basePackageClasses = TeamRepository.class, repositoryBaseClass = SliceJpaRepository.class)
+    @EnableJpaAuditing(auditorAwareRef = "auditAwareImpl")
+    @Import({AuditAwareImpl.class, TeamServiceImpl.class, TeamMembershipCache.class, ApproximateCountCache.class,
+            EntityVersionMap.class, ExportRepository.class})
+    static class JpaConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private TeamServiceImpl teamService;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private TeamMemberRepository teamMemberRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long teamId;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < TEAMS; i++) {
+            Team team = new Team();
+            team.setName("Team " + i);
+            team = teamRepository.save(team);
+            List<TeamMember> members = new ArrayList<>();
+            for (long userId = MEMBER_USER_ID; userId < MEMBER_USER_ID + MEMBERS_PER_TEAM; userId++) {
+                TeamMember member = new TeamMember();
+                member.setTeamId(team.getId());
+                member.setUserId(userId);
+                member.setRole(TeamConstants.ROLE_PARTICIPANT);
+                member.setStatus(TeamConstants.STATUS_JOINED);
+                members.add(teamMemberRepository.save(member));
+            }
+            team.setTeamMembers(members);
+            teamId = team.getId();
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listTeamsIssuesOneQueryPerPage() {
+        teamService.listTeams(PageRequest.of(0, 10), null).getContent();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void listTeamsByMemberIssuesOneQueryPerPage() {
+        teamService.listTeams(PageRequest.of(0, 10), MEMBER_USER_ID).getContent();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void listTeamsByMemberSkipsRejectedMemberships() {
+        TeamMember rejected = teamMemberRepository.findAll().get(0);
+        rejected.reject();
+        teamMemberRepository.saveAndFlush(rejected);
+
+        List<Long> listed = teamService.listTeams(PageRequest.of(0, 10, Sort.by("id")), rejected.getUserId()).getContent().stream()
+                .map(TeamResponseDto::getId)
+                .toList();
+        List<Long> fetched = teamService.getTeamsByMember(rejected.getUserId()).stream()
+                .map(TeamResponseDto::getId)
+                .toList();
+
+        assertEquals(TEAMS - 1, listed.size());
+        assertEquals(fetched, listed);
+    }
+
+    @Test
+    void fetchTeamLoadsMembersInOneJoin() {
+        TeamResponseDto team = teamService.fetchTeam(teamId);
+
+        assertEquals(MEMBERS_PER_TEAM, team.getTeamMembers().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getTeamMembersByTeamIdDoesNotHydrateTheTeam() {
+        teamService.getTeamMembersByTeamId(teamId, PageRequest.of(0, 10)).getContent();
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(MEMBERS_PER_TEAM, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void exportTeamMembersReadsRowsWithoutEntities() {
+        List<TeamMemberRow> rows = new ArrayList<>();
+        teamService.exportTeamMembers(teamId, rows::add);
+
+        assertEquals(MEMBERS_PER_TEAM, rows.size());
+        assertEquals(0, statistics.getEntityLoadCount());
+        // The existence check; the export itself goes through JDBC
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
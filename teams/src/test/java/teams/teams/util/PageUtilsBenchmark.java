@@ -0,0 +1,111 @@
+package teams.teams.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Window;
+import teams.teams.api.model.CardResponseDto;
+import teams.teams.api.model.PagingCardResponseDto;
+import teams.teams.api.model.PagingTeamMemberResponseDto;
+import teams.teams.api.model.PagingTeamResponseDto;
+import teams.teams.api.model.TeamMemberResponseDto;
+import teams.teams.api.model.TeamResponseDto;
+import teams.teams.entity.Card;
+import teams.teams.mapper.CardMapper;
+import teams.teams.mapper.MapperFixtures;
+import teams.teams.mapper.TeamMapper;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a slice, page or keyset window into the paging DTOs, with the content
+ * already mapped, and of the full card listing path from entities to {@link PagingCardResponseDto}.
+ * The window benchmarks include encoding the next cursor. Run with
+ * {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark.includes=PageUtils}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PageUtilsBenchmark {
+
+    @Param({"20", "100", "500"})
+    private int pageSize;
+
+    private Slice<Card> cardEntities;
+    private Slice<CardResponseDto> cardSlice;
+    private PageImpl<CardResponseDto> cardPage;
+    private Window<CardResponseDto> cardWindow;
+    private Slice<TeamResponseDto> teamSlice;
+    private Slice<TeamMemberResponseDto> teamMemberSlice;
+
+    @Setup
+    public void setUp() {
+        PageRequest pageable = PageRequest.of(1, pageSize);
+        List<Card> cards = MapperFixtures.cards(pageSize);
+        List<CardResponseDto> cardDtos = CardMapper.mapToCardsResponseDto(cards);
+        cardEntities = new SliceImpl<>(cards, pageable, true);
+        cardSlice = new SliceImpl<>(cardDtos, pageable, true);
+        cardPage = new PageImpl<>(cardDtos, pageable, 10_000);
+        cardWindow = Window.from(cardDtos, index -> position(cards.get(index)), true);
+        teamSlice = new SliceImpl<>(MapperFixtures.teams(pageSize).stream()
+                .map(TeamMapper::mapToTeamResponseDtoSummary).toList(), pageable, true);
+        teamMemberSlice = new SliceImpl<>(MapperFixtures.team(pageSize).getTeamMembers().stream()
+                .map(TeamMapper::mapToTeamMemberResponseDto).toList(), pageable, true);
+    }
+
+    @Benchmark
+    public PagingCardResponseDto cardSlice() {
+        return PageUtils.toPagingCardResponseDto(cardSlice);
+    }
+
+    @Benchmark
+    public PagingCardResponseDto cardPage() {
+        return PageUtils.toPagingCardResponseDto(cardPage);
+    }
+
+    @Benchmark
+    public PagingCardResponseDto cardWindow() {
+        return PageUtils.toPagingCardResponseDto(cardWindow, pageSize);
+    }
+
+    @Benchmark
+    public PagingCardResponseDto cardListing() {
+        return PageUtils.toPagingCardResponseDto(cardEntities.map(CardMapper::mapToCardResponseDto));
+    }
+
+    @Benchmark
+    public PagingTeamResponseDto teamSlice() {
+        return PageUtils.toPagingTeamResponseDto(teamSlice);
+    }
+
+    @Benchmark
+    public PagingTeamMemberResponseDto teamMemberSlice() {
+        return PageUtils.toPagingTeamMemberResponseDto(teamMemberSlice);
+    }
+
+    private static ScrollPosition position(Card card) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("updatedAt", card.getUpdatedAt());
+        keys.put("id", card.getId());
+        return ScrollPosition.forward(keys);
+    }
+}
@@ -0,0 +1,109 @@
+package teams.teams.util;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import teams.teams.api.model.PagingCardResponseDto;
+import teams.teams.dto.CardRowPageDto;
+import teams.teams.entity.Card;
+import teams.teams.mapper.CardJsonWriter;
+import teams.teams.mapper.CardMapper;
+import teams.teams.mapper.MapperFixtures;
+import teams.teams.repository.projection.CardRow;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of serializing a page of cards with an {@link ObjectMapper} configured the way Spring
+ * Boot configures the one behind the MVC message converter (Java time module, ISO-8601 dates).
+ * <p>
+ * {@code toBytes} buffers the whole body, {@code toStream} writes it to a discarding stream as
+ * the converter writes to the response, so the difference is the cost of the buffer.
+ * {@code rowsToStream} writes the same document from projection rows with {@link CardJsonWriter}.
+ * {@code entityListing} and {@code rowListing} cover the whole listing path after the query: the
+ * former maps entities to DTOs, wraps them and serializes them with Jackson, the latter wraps the
+ * rows and streams them. Run with
+ * {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark.includes=PagingJson}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PagingJsonBenchmark {
+
+    @Param({"20", "100", "500"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter writer;
+    private PagingCardResponseDto page;
+    private CardRowPageDto rowPage;
+    private Slice<Card> cards;
+    private Slice<CardRow> rows;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        writer = objectMapper.writerFor(PagingCardResponseDto.class);
+        PageRequest pageable = PageRequest.of(1, pageSize);
+        cards = new SliceImpl<>(MapperFixtures.cards(pageSize), pageable, true);
+        rows = new SliceImpl<>(MapperFixtures.cardRows(pageSize), pageable, true);
+        page = PageUtils.toPagingCardResponseDto(cards.map(CardMapper::mapToCardResponseDto));
+        rowPage = PageUtils.toCardRowPageDto(rows);
+    }
+
+    @Benchmark
+    public byte[] toBytes() throws JsonProcessingException {
+        return writer.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public void toStream() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), page);
+    }
+
+    @Benchmark
+    public void rowsToStream() throws IOException {
+        stream(rowPage);
+    }
+
+    @Benchmark
+    public void entityListing() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(),
+                PageUtils.toPagingCardResponseDto(cards.map(CardMapper::mapToCardResponseDto)));
+    }
+
+    @Benchmark
+    public void rowListing() throws IOException {
+        stream(PageUtils.toCardRowPageDto(rows));
+    }
+
+    private void stream(CardRowPageDto pagingDto) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(OutputStream.nullOutputStream(), JsonEncoding.UTF8)) {
+            new CardJsonWriter(generator).write(pagingDto);
+        }
+    }
+}
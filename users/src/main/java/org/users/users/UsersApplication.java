@@ -8,8 +8,9 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableAsync;
 
-@SpringBootApplication
+@SpringBootApplication(scanBasePackages = {"org.users.users", "com.teamup.commons"})
 @EnableJpaAuditing(auditorAwareRef = "auditAwareImpl")
 @OpenAPIDefinition(info = @Info(
         title = "Users microservice REST API Docs",
@@ -27,6 +28,7 @@ import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
     )
 )
 @EnableFeignClients
+@EnableAsync
 public class UsersApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,63 @@
+package org.users.users.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.users.users.constants.UserConstants;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second-level cache regions, backed by bounded Caffeine caches.
+ * <p>
+ * The regions are created here rather than in a Caffeine config file so their size and TTL come
+ * from the Spring environment (and therefore the config server). Each region reports
+ * {@code cache.gets}, {@code cache.puts} and {@code cache.evictions} tagged with its name.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(MeterRegistry meterRegistry,
+                                              @Value("${hibernate-cache.role.max-size:100}") long roleMaxSize,
+                                              @Value("${hibernate-cache.role.ttl-seconds:3600}") long roleTtlSeconds,
+                                              @Value("${hibernate-cache.query.max-size:100}") long queryMaxSize,
+                                              @Value("${hibernate-cache.query.ttl-seconds:3600}") long queryTtlSeconds) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+        createRegion(cacheManager, meterRegistry, UserConstants.ROLE_CACHE_REGION, roleMaxSize, roleTtlSeconds);
+        createRegion(cacheManager, meterRegistry, QUERY_RESULTS_REGION, queryMaxSize, queryTtlSeconds);
+        // One entry per table; evicting it would let stale query results be served
+        createRegion(cacheManager, meterRegistry, UPDATE_TIMESTAMPS_REGION, null, null);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static void createRegion(CacheManager cacheManager, MeterRegistry meterRegistry, String region,
+                                     Long maxSize, Long ttlSeconds) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        if (maxSize != null) {
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+        }
+        if (ttlSeconds != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        }
+        configuration.setStatisticsEnabled(true);
+        JCacheMetrics.monitor(meterRegistry, cacheManager.createCache(region, configuration));
+    }
+}
@@ -14,4 +14,21 @@ public class UserConstants
     public static final String  STATUS_500 = "500";
     public static final String  MESSAGE_500 = "An error occurred. Please try again or contact Dev team";
 
+    public static final String  USER_CREATION_BINDING = "userCreation-out-0";
+    public static final String  USER_EVENTS_BINDING = "userEvents-out-0";
+    // Header evaluated by the partition-key-expression of the output bindings
+    public static final String  PARTITION_KEY_HEADER = "partitionKey";
+    public static final String  EVENT_TYPE_HEADER = "eventType";
+    public static final String  EVENT_CREATED = "CREATED";
+    public static final String  EVENT_UPDATED = "UPDATED";
+    public static final String  EVENT_DELETED = "DELETED";
+
+    public static final String  VERSION_TYPE = "user";
+
+    public static final String  ROLE_CACHE_REGION = "role";
+
+    public static final String  EMAILS_SENT_DLQ_BINDING = "emailsSentDlq-out-0";
+    public static final String  DLQ_REASON_HEADER = "dlqReason";
+    public static final String  DLQ_REASON_UNKNOWN_MOBILE_NUMBER = "UNKNOWN_MOBILE_NUMBER";
+
 }
@@ -1,5 +1,6 @@
 package org.users.users.controller;
 
+import com.teamup.commons.util.ETagUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -9,6 +10,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -18,6 +20,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -28,6 +31,8 @@ import org.users.users.dto.UserDto;
 import org.users.users.entity.User;
 import org.users.users.service.IUserService;
 
+import java.util.List;
+
 @Tag(
         name = "CRUD REST API for Users",
         description = "CRUD REST API operations for Users microservice")
@@ -119,10 +124,34 @@ public class UserController
             description = "Fetch User by Id REST API")
     @GetMapping("/fetch")
     public ResponseEntity<UserDto> fetchUser(
-            @RequestParam Long id)
+            @RequestParam Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch)
     {
+        if (ifNoneMatch != null) {
+            String etag = ETagUtils.etag(id, userService.getUserVersion(id));
+            if (ETagUtils.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
         UserDto userDto = userService.fetchUser(id);
-        return ResponseEntity.status(HttpStatus.OK).body(userDto);
+        return ResponseEntity.status(HttpStatus.OK)
+                .eTag(ETagUtils.etag(id, userDto.getVersion()))
+                .body(userDto);
+    }
+
+    @ApiResponse(
+            responseCode = "200",
+            description = "HTTP Status OK"
+    )
+    @Operation(
+            summary = "Fetch Users by Ids REST API",
+            description = "Fetch many Users in one request. Unknown ids are left out of the response")
+    @GetMapping("/fetchBatch")
+    public ResponseEntity<List<UserDto>> fetchUsers(
+            @RequestParam List<Long> ids)
+    {
+        List<UserDto> userDtos = userService.fetchUsers(ids);
+        return ResponseEntity.status(HttpStatus.OK).body(userDtos);
     }
 
     @ApiResponses({
@@ -23,6 +23,11 @@ public class UserDto
     )
     private Long Id;
 
+    @Schema(
+            description = "Version of the user, incremented on every change", example = "0"
+    )
+    private Long version;
+
     @Schema(
             description = "First name of the user", example = "Mykyta"
     )
@@ -1,5 +1,6 @@
 package org.users.users.entity;
 
+import com.teamup.commons.id.SnowflakeId;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -19,8 +20,12 @@ import java.time.LocalDateTime;
 @EntityListeners(AuditingEntityListener.class)
 public class BaseEntity {
 
+    /**
+     * Assigned by the {@link SnowflakeId} generator before the insert, so inserts can be batched.
+     * Rows created with the former AUTO_INCREMENT keep their (smaller) IDs.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     @Column(name = "id")
     private Long id;
 
@@ -40,6 +45,14 @@ public class BaseEntity {
     @LastModifiedBy
     private String updatedBy;
 
+    /**
+     * Optimistic lock version, also the basis of the ETag of single-entity responses.
+     * Rows created before the column existed start at 0.
+     */
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint not null default 0")
+    private Long version;
+
     /**
      * Sets last-updated fields on first persist so they are never null.
      * AuditingEntityListener has already set createdAt/createdBy at this point.
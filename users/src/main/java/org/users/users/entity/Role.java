@@ -2,8 +2,13 @@ package org.users.users.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.users.users.constants.UserConstants;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = UserConstants.ROLE_CACHE_REGION)
 @Getter
 @Setter
 @ToString
@@ -8,6 +8,10 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_mobile_number", columnList = "mobile_number"),
+        @Index(name = "idx_users_email", columnList = "email")
+})
 @Getter
 @Setter
 @ToString
@@ -1,11 +1,19 @@
 package org.users.users.functions;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cloud.stream.function.StreamBridge;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.users.users.repository.UserRepository;
+import org.springframework.integration.support.MessageBuilder;
+import org.users.users.constants.UserConstants;
+import org.users.users.service.IUserService;
 
+import java.util.List;
+import java.util.Set;
 import java.util.function.Consumer;
 
 @Configuration
@@ -13,14 +21,37 @@ public class UserFunctions {
 
     private static Logger logger = LoggerFactory.getLogger(UserFunctions.class);
 
+    /**
+     * Batch consumer of communication confirmations: every poll flags all users of the batch with
+     * one lookup and one update. Mobile numbers that belong to no user are sent to the DLQ instead
+     * of failing the batch, so they are not redelivered.
+     */
     @Bean
-    public Consumer<String> emailsSent(UserRepository userRepository) {
-        return mobileNumber -> {
-            userRepository.findByMobileNumber(mobileNumber).ifPresentOrElse(user -> {
-                logger.info("Communications sent to user with mobile number: " + mobileNumber);
-                user.setSentEmails(true);
-                userRepository.save(user);
-            }, () -> {throw new RuntimeException("Could not update user with mobile number " + mobileNumber);});
+    public Consumer<List<String>> emailsSent(IUserService userService, StreamBridge streamBridge,
+                                             MeterRegistry meterRegistry) {
+        DistributionSummary batches = DistributionSummary.builder("users.emails.sent.batch.size")
+                .description("Communication confirmations per consumed batch")
+                .register(meterRegistry);
+        Counter matched = Counter.builder("users.emails.sent.confirmations").tag("result", "matched")
+                .description("Communication confirmations by whether a user has the mobile number")
+                .register(meterRegistry);
+        Counter unmatched = Counter.builder("users.emails.sent.confirmations").tag("result", "unmatched")
+                .description("Communication confirmations by whether a user has the mobile number")
+                .register(meterRegistry);
+        return mobileNumbers -> {
+            batches.record(mobileNumbers.size());
+            Set<String> unknown = Set.copyOf(userService.markEmailsSent(mobileNumbers));
+            for (String mobileNumber : unknown) {
+                streamBridge.send(UserConstants.EMAILS_SENT_DLQ_BINDING, MessageBuilder.withPayload(mobileNumber)
+                        .setHeader(UserConstants.DLQ_REASON_HEADER, UserConstants.DLQ_REASON_UNKNOWN_MOBILE_NUMBER)
+                        .build());
+            }
+            matched.increment(mobileNumbers.size() - mobileNumbers.stream().filter(unknown::contains).count());
+            unmatched.increment(unknown.size());
+            if (!unknown.isEmpty()) {
+                logger.warn("No user with {} of {} confirmed mobile numbers, sent to the DLQ", unknown.size(),
+                        mobileNumbers.size());
+            }
         };
     }
 
@@ -3,6 +3,7 @@ package org.users.users.mapper;
 import org.users.users.dto.CardResponseDto;
 import org.users.users.dto.RoleDto;
 import org.users.users.dto.UserDto;
+import org.users.users.dto.UserMessageDto;
 import org.users.users.entity.Role;
 import org.users.users.entity.User;
 
@@ -16,6 +17,7 @@ public class UserMapper
     public static UserDto mapToUserDto(User user, UserDto userDto)
     {
         userDto.setId(user.getId());
+        userDto.setVersion(user.getVersion());
         userDto.setEmail(user.getEmail());
         userDto.setFirstName(user.getFirstName());
         userDto.setLastName(user.getLastName());
@@ -55,4 +57,10 @@ public class UserMapper
         return user;
     }
 
+    public static UserMessageDto mapToUserMessageDto(User user)
+    {
+        return new UserMessageDto(user.getId(), user.getFirstName(), user.getLastName(),
+                user.getEmail(), user.getMobileNumber());
+    }
+
 }
@@ -1,6 +1,9 @@
 package org.users.users.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.users.users.entity.Role;
 
@@ -10,6 +13,10 @@ import java.util.Optional;
 public interface RoleRepository extends JpaRepository<Role, Long>
 {
 
+    /**
+     * Roles almost never change, so the lookup goes through the Hibernate query cache
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Role> findByRoleName(String roleName);
 
 }
@@ -1,9 +1,15 @@
 package org.users.users.repository;
 
 import org.users.users.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,4 +19,30 @@ public interface UserRepository extends JpaRepository<User, Long>
     Optional<User> findByMobileNumber(String mobileNumber);
 
     Optional<User> findByEmail(String email);
+
+    /**
+     * Returns which of the mobile numbers belong to a user, read from the mobile number index
+     *
+     * @param mobileNumbers the mobile numbers to look up
+     * @return the mobile numbers found, once per matching user
+     */
+    @Query("SELECT u.mobileNumber FROM users u WHERE u.mobileNumber IN :mobileNumbers")
+    List<String> findMobileNumbersIn(@Param("mobileNumbers") Collection<String> mobileNumbers);
+
+    /**
+     * Flags every user with one of the mobile numbers in a single statement, without loading them
+     *
+     * @param mobileNumbers the mobile numbers that received their communication
+     * @return the number of updated users
+     */
+    @Modifying
+    @Query("UPDATE users u SET u.sentEmails = true WHERE u.mobileNumber IN :mobileNumbers")
+    int markEmailsSent(@Param("mobileNumbers") Collection<String> mobileNumbers);
+
+    @Query("SELECT u.version FROM users u WHERE u.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Override
+    @EntityGraph(attributePaths = "roles")
+    List<User> findAllById(Iterable<Long> ids);
 }
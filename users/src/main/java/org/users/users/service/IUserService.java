@@ -3,6 +3,9 @@ package org.users.users.service;
 import org.users.users.dto.UserDto;
 import org.users.users.entity.User;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface IUserService
 {
 
@@ -10,8 +13,20 @@ public interface IUserService
 
     UserDto fetchUser(Long userId);
 
+    long getUserVersion(Long userId);
+
+    List<UserDto> fetchUsers(List<Long> userIds);
+
     boolean updateUser(UserDto userDto);
 
     boolean deleteUser(Long userId);
 
+    /**
+     * Records that the users with the given mobile numbers received their communication
+     *
+     * @param mobileNumbers the confirmed mobile numbers of one batch
+     * @return the mobile numbers that belong to no user
+     */
+    List<String> markEmailsSent(Collection<String> mobileNumbers);
+
 }
@@ -1,14 +1,15 @@
 package org.users.users.service.impl;
 
+import com.teamup.commons.cache.EntityVersionMap;
+import com.teamup.commons.util.TransactionUtils;
 import lombok.AllArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.stream.function.StreamBridge;
-import org.springframework.integration.support.MessageBuilder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.users.users.constants.UserConstants;
 import org.users.users.dto.UserDto;
-import org.users.users.dto.UserMessageDto;
 import org.users.users.entity.Role;
 import org.users.users.entity.User;
 import org.users.users.exception.ResourceNotFoundException;
@@ -17,7 +18,11 @@ import org.users.users.mapper.UserMapper;
 import org.users.users.repository.RoleRepository;
 import org.users.users.repository.UserRepository;
 import org.users.users.service.IUserService;
+import org.users.users.util.UserMessageUtils;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -32,6 +37,7 @@ public class UserServiceImpl implements IUserService {
     private static final Logger log = LoggerFactory.getLogger(UserServiceImpl.class);
 
     private final StreamBridge streamBridge;
+    private final EntityVersionMap entityVersionMap;
 
     @Override
     public User createUser(UserDto userDto) {
@@ -44,12 +50,24 @@ public class UserServiceImpl implements IUserService {
         }
         createNewUserWithDefaultRole(user);
         User saved = userRepository.save(user);
-        var sent = streamBridge.send("userCreation-out-0", MessageBuilder.withPayload(
-                saved.getMobileNumber()).setHeader("partitionKey", 0).build());
-        log.info("User send out: {}", sent);
+        var sent = streamBridge.send(UserConstants.USER_CREATION_BINDING,
+                UserMessageUtils.keyedByUser(UserMapper.mapToUserMessageDto(saved)).build());
+        log.info("User {} send out: {}", saved.getId(), sent);
+        publishUserEvent(UserConstants.EVENT_CREATED, saved);
         return saved;
     }
 
+    /**
+     * Publishes a user lifecycle event keyed by user id, so the compacted topic keeps the latest state per user
+     */
+    private void publishUserEvent(String eventType, User user) {
+        var sent = streamBridge.send(UserConstants.USER_EVENTS_BINDING,
+                UserMessageUtils.keyedByUser(UserMapper.mapToUserMessageDto(user))
+                        .setHeader(UserConstants.EVENT_TYPE_HEADER, eventType)
+                        .build());
+        log.info("User {} event for {} send out: {}", eventType, user.getId(), sent);
+    }
+
     private void createNewUserWithDefaultRole(User user) {
         Role userRole = roleRepository.findByRoleName("USER")
                 .orElseGet(() -> roleRepository.save(new Role().withRoleName("USER")));
@@ -58,14 +76,30 @@ public class UserServiceImpl implements IUserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDto fetchUser(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id",
                         id.toString()));
+        entityVersionMap.record(UserConstants.VERSION_TYPE, id, user.getVersion());
 
         return UserMapper.mapToUserDto(user, new UserDto());
     }
 
+    @Override
+    public long getUserVersion(Long id) {
+        return entityVersionMap.getVersion(UserConstants.VERSION_TYPE, id, () -> userRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", id.toString())));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserDto> fetchUsers(List<Long> userIds) {
+        return userRepository.findAllById(userIds).stream()
+                .map(user -> UserMapper.mapToUserDto(user, new UserDto()))
+                .toList();
+    }
+
     @Override
     public boolean updateUser(UserDto userDto) {
         User user = userRepository.findById(userDto.getId())
@@ -85,7 +119,9 @@ public class UserServiceImpl implements IUserService {
         user.setEmail(userDto.getEmail());
         user.setMobileNumber(userDto.getMobileNumber());
 
-        userRepository.save(user);
+        User saved = userRepository.save(user);
+        entityVersionMap.evict(UserConstants.VERSION_TYPE, saved.getId());
+        publishUserEvent(UserConstants.EVENT_UPDATED, saved);
 
         return true;
     }
@@ -99,7 +135,25 @@ public class UserServiceImpl implements IUserService {
                                 userId.toString())
                 );
         userRepository.delete(user);
+        entityVersionMap.evict(UserConstants.VERSION_TYPE, userId);
+        // Teams removes the user's memberships on this event, so it must not go out for a rolled back delete
+        TransactionUtils.afterCommit(() -> publishUserEvent(UserConstants.EVENT_DELETED, user));
         return true;
     }
 
+    @Override
+    @Transactional
+    public List<String> markEmailsSent(Collection<String> mobileNumbers) {
+        Set<String> requested = new HashSet<>(mobileNumbers);
+        if (requested.isEmpty()) {
+            return List.of();
+        }
+        Set<String> found = new HashSet<>(userRepository.findMobileNumbersIn(requested));
+        if (!found.isEmpty()) {
+            userRepository.markEmailsSent(found);
+        }
+        requested.removeAll(found);
+        return List.copyOf(requested);
+    }
+
 }
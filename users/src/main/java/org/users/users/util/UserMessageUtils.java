@@ -0,0 +1,29 @@
+package org.users.users.util;
+
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.users.users.constants.UserConstants;
+import org.users.users.dto.UserMessageDto;
+
+import java.nio.charset.StandardCharsets;
+
+public class UserMessageUtils {
+
+    private UserMessageUtils() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Starts a message about a user, keyed by user ID and partitioned by a hash of it, so the
+     * messages of one user stay on one partition in the order they were sent while different
+     * users spread over all partitions of the binding
+     *
+     * @param user the user carried by the message
+     * @return the message builder, for further headers
+     */
+    public static MessageBuilder<UserMessageDto> keyedByUser(UserMessageDto user) {
+        return MessageBuilder.withPayload(user)
+                .setHeader(KafkaHeaders.KEY, user.id().toString().getBytes(StandardCharsets.UTF_8))
+                .setHeader(UserConstants.PARTITION_KEY_HEADER, user.id());
+    }
+}
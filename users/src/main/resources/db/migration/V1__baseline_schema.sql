@@ -0,0 +1,36 @@
+-- Schema as created by hibernate.ddl-auto=update up to the release before migrations. Databases
+-- that already have it are baselined at version 1 (spring.flyway.baseline-on-migrate) and skip
+-- this script; everything added since is in V2 and later, so they receive it too.
+
+CREATE TABLE role (
+    id         BIGINT NOT NULL AUTO_INCREMENT,
+    created_at DATETIME(6),
+    created_by VARCHAR(255),
+    updated_at DATETIME(6),
+    updated_by VARCHAR(255),
+    role_name  VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_role_role_name UNIQUE (role_name)
+) ENGINE = InnoDB;
+
+CREATE TABLE users (
+    id            BIGINT NOT NULL AUTO_INCREMENT,
+    created_at    DATETIME(6),
+    created_by    VARCHAR(255),
+    updated_at    DATETIME(6),
+    updated_by    VARCHAR(255),
+    first_name    VARCHAR(255),
+    last_name     VARCHAR(255),
+    email         VARCHAR(255),
+    mobile_number VARCHAR(255),
+    sent_emails   BIT    NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE user_roles (
+    user_id BIGINT NOT NULL,
+    role_id BIGINT NOT NULL,
+    PRIMARY KEY (user_id, role_id),
+    CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_user_roles_role FOREIGN KEY (role_id) REFERENCES role (id)
+) ENGINE = InnoDB;
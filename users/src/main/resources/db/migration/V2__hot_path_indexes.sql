@@ -0,0 +1,4 @@
+-- findByMobileNumber and findByEmail scanned the whole table. Not unique: existing data is not
+-- guaranteed to be free of duplicates.
+CREATE INDEX idx_users_mobile_number ON users (mobile_number);
+CREATE INDEX idx_users_email ON users (email);
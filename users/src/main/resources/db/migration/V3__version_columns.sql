@@ -0,0 +1,3 @@
+-- Optimistic locking and ETag versions. Existing rows start at version 0.
+ALTER TABLE role ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -3,7 +3,7 @@ package org.users.users;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "ids.node-id=0")
 class MyServicesApplicationTests {
 
     @Test
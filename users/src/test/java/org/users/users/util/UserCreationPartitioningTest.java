@@ -0,0 +1,127 @@
+package org.users.users.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.users.users.constants.UserConstants;
+import org.users.users.dto.UserMessageDto;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sends user creation messages through the userCreation binding, with its partition key
+ * expression and partition count from application.yml, and checks that every message of a user
+ * lands on one partition in send order while the users spread over all partitions.
+ * Throughput is measured by load-tests/user-creation.js, not here.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.cloud.function.definition=",
+        "spring.cloud.stream.kafka.binder.brokers=${spring.embedded.kafka.brokers}"
+})
+@EmbeddedKafka
+class UserCreationPartitioningTest {
+
+    private static final String TOPIC = "send-userCreationNotificationSms";
+    private static final int PARTITIONS = 3;
+    private static final int USERS = 30;
+    private static final int MESSAGES_PER_USER = 3;
+
+    // The binding without the database, Eureka and config server the rest of the service needs
+    @SpringBootConfiguration
+    @EnableAutoConfiguration(exclude = {DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+            FlywayAutoConfiguration.class})
+    static class StreamConfig {
+    }
+
+    @Autowired
+    private StreamBridge streamBridge;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Test
+    void messagesOfAUserShareAPartitionInOrder() {
+        // Each round resends every user with the round in the first name, so the order is visible per user
+        for (int round = 0; round < MESSAGES_PER_USER; round++) {
+            for (long userId = 1; userId <= USERS; userId++) {
+                UserMessageDto user = new UserMessageDto(userId, "Round " + round, "Last " + userId,
+                        "user" + userId + "@example.com", String.format("050%07d", userId));
+                assertTrue(streamBridge.send(UserConstants.USER_CREATION_BINDING,
+                        UserMessageUtils.keyedByUser(user).build()));
+            }
+        }
+
+        Map<Long, Integer> partitions = new HashMap<>();
+        Map<Long, List<String>> rounds = new HashMap<>();
+        for (ConsumerRecord<String, String> record : consume()) {
+            UserMessageDto user = read(record.value());
+            assertEquals(user.id().toString(), record.key());
+            Integer partition = partitions.putIfAbsent(user.id(), record.partition());
+            assertEquals(partition == null ? record.partition() : partition, record.partition(),
+                    "Messages of user " + user.id() + " on several partitions");
+            rounds.computeIfAbsent(user.id(), id -> new ArrayList<>()).add(user.firstname());
+        }
+
+        assertEquals(USERS, rounds.size());
+        List<String> expected = new ArrayList<>();
+        for (int round = 0; round < MESSAGES_PER_USER; round++) {
+            expected.add("Round " + round);
+        }
+        rounds.forEach((userId, received) -> assertEquals(expected, received, "Messages of user " + userId));
+        assertEquals(Set.of(0, 1, 2), new HashSet<>(partitions.values()), "Partitions used: " + partitions);
+    }
+
+    private List<ConsumerRecord<String, String>> consume() {
+        Map<String, Object> consumerProps = KafkaTestUtils.consumerProps("partitioning-test", "false", broker);
+        consumerProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        consumerProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        try (Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<String, String>(consumerProps)
+                .createConsumer()) {
+            consumer.subscribe(List.of(TOPIC));
+            assertEquals(PARTITIONS, consumer.partitionsFor(TOPIC).size());
+            List<ConsumerRecord<String, String>> records = new ArrayList<>();
+            KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(30), USERS * MESSAGES_PER_USER)
+                    .forEach(records::add);
+            return records;
+        }
+    }
+
+    private UserMessageDto read(String value) {
+        try {
+            return objectMapper.readValue(value, UserMessageDto.class);
+        } catch (JsonProcessingException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}